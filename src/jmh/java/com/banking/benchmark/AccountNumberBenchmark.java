@@ -0,0 +1,49 @@
+package com.banking.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.banking.service.AccountNumberAllocator;
+
+// AccountService.generateAccountNumber delegates to the allocator: an
+// AtomicLong within a leased block, a database round trip per block
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountNumberBenchmark {
+
+	@Param({"100", "1000"})
+	public int blockSize;
+
+	private ConfigurableApplicationContext context;
+	private AccountNumberAllocator allocator;
+	private String issued;
+
+	@Setup
+	public void setUp() {
+		context = BenchmarkContext.start("banking.account-number.block-size=" + blockSize);
+		allocator = context.getBean(AccountNumberAllocator.class);
+		issued = allocator.next();
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public String next() {
+		return allocator.next();
+	}
+
+	@Benchmark
+	public boolean isWellFormed() {
+		return AccountNumberAllocator.isWellFormed(issued);
+	}
+}
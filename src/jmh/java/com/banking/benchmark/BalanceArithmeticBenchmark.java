@@ -0,0 +1,58 @@
+package com.banking.benchmark;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// The BigDecimal work behind a debit check and a balance total
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BalanceArithmeticBenchmark {
+
+	private BigDecimal balance;
+	private BigDecimal amount;
+	private List<BigDecimal> balances;
+
+	@Setup
+	public void setUp() {
+		balance = new BigDecimal("125000.50");
+		amount = new BigDecimal("499.99");
+		balances = new ArrayList<>(1000);
+		for (int i = 0; i < 1000; i++) {
+			balances.add(BigDecimal.valueOf(ThreadLocalRandom.current().nextLong(100_000_000), 2));
+		}
+	}
+
+	@Benchmark
+	public BigDecimal debitWhenFunded() {
+		return balance.compareTo(amount) >= 0 ? balance.subtract(amount) : balance;
+	}
+
+	@Benchmark
+	public BigDecimal credit() {
+		return balance.add(amount);
+	}
+
+	@Benchmark
+	public BigDecimal parseAmount() {
+		return new BigDecimal("499.99").setScale(2, RoundingMode.HALF_EVEN);
+	}
+
+	@Benchmark
+	public BigDecimal sumBalances() {
+		BigDecimal total = BigDecimal.ZERO;
+		for (BigDecimal b : balances) {
+			total = total.add(b);
+		}
+		return total;
+	}
+}
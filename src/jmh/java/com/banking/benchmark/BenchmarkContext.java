@@ -0,0 +1,48 @@
+package com.banking.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.banking.BankingAccountManagementSystemApplication;
+import com.banking.model.Account;
+import com.banking.repository.AccountRepository;
+import com.banking.service.AccountNumberAllocator;
+
+// The application without its web server, on the in-memory H2 database of
+// the "test" profile, for benchmarks that need real services
+final class BenchmarkContext {
+
+	private BenchmarkContext() {}
+
+	static ConfigurableApplicationContext start(String... properties) {
+		List<String> args = new ArrayList<>(List.of(
+				"--spring.jpa.show-sql=false",
+				"--logging.level.root=WARN",
+				"--banking.ledger.checkpoint-interval-ms=1000"));
+		for (String property : properties) {
+			args.add("--" + property);
+		}
+		return new SpringApplicationBuilder(BankingAccountManagementSystemApplication.class)
+				.profiles("test")
+				.web(WebApplicationType.NONE)
+				.run(args.toArray(String[]::new));
+	}
+
+	static List<String> openAccounts(ConfigurableApplicationContext context, int count, String balance) {
+		AccountRepository accounts = context.getBean(AccountRepository.class);
+		AccountNumberAllocator allocator = context.getBean(AccountNumberAllocator.class);
+		List<String> numbers = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Account account = new Account(allocator.next(), 1L, "SAVINGS", new BigDecimal(balance));
+			account.setStatus("ACTIVE");
+			account.setCurrency("INR");
+			numbers.add(accounts.save(account).getAccountNumber());
+		}
+		return numbers;
+	}
+}
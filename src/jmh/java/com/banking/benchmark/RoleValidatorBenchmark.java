@@ -0,0 +1,44 @@
+package com.banking.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.banking.service.RoleValidator;
+
+// Runs on every request; the denied case pays for building an exception
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoleValidatorBenchmark {
+
+	private final RoleValidator roleValidator = new RoleValidator();
+
+	public String admin = "ADMIN";
+	public String customer = "CUSTOMER";
+	public Long owner = 42L;
+	public Long other = 43L;
+
+	@Benchmark
+	public void adminAllowed() {
+		roleValidator.validateAdmin(admin);
+	}
+
+	@Benchmark
+	public void ownAccountAllowed() {
+		roleValidator.validateAccountAccess(customer, owner, Long.valueOf(owner));
+	}
+
+	@Benchmark
+	public void otherAccountDenied(Blackhole blackhole) {
+		try {
+			roleValidator.validateAccountAccess(customer, owner, other);
+		} catch (RuntimeException e) {
+			blackhole.consume(e);
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package com.banking.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.banking.model.Transaction;
+import com.banking.model.User;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+// JSON for a history page and an admin user list, as the controllers
+// return them
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+	@Param({"50", "1000"})
+	public int size;
+
+	private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+	private List<Transaction> transactions;
+	private List<User> users;
+
+	@Setup
+	public void setUp() {
+		transactions = new ArrayList<>(size);
+		users = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			transactions.add(new Transaction("ACC00000000" + (i % 10) + "7", "TRANSFER_OUT",
+					new BigDecimal(i + ".25"), "Transferred to ACC00000001234"));
+			users.add(new User("First" + i, "Last" + i, "user" + i,
+					"$2a$12$abcdefghijklmnopqrstuv", "user" + i + "@example.com",
+					"98765" + String.format("%05d", i), "CUSTOMER"));
+		}
+	}
+
+	@Benchmark
+	public byte[] transactions() {
+		return objectMapper.writeValueAsBytes(transactions);
+	}
+
+	@Benchmark
+	public byte[] users() {
+		return objectMapper.writeValueAsBytes(users);
+	}
+}
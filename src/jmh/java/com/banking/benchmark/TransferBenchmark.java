@@ -0,0 +1,58 @@
+package com.banking.benchmark;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.banking.service.TransactionService;
+
+// End-to-end TransactionService.transferMoney (locking, history rows, daily
+// rollup, outbox) on H2. accounts=2 is one hot pair every thread fights
+// over; larger counts spread the transfers out.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class TransferBenchmark {
+
+	private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+
+	@Param({"ATOMIC", "PESSIMISTIC", "OPTIMISTIC", "LEDGER"})
+	public String lockMode;
+
+	@Param({"2", "1000"})
+	public int accounts;
+
+	private ConfigurableApplicationContext context;
+	private TransactionService transactionService;
+	private List<String> accountNumbers;
+
+	@Setup
+	public void setUp() {
+		context = BenchmarkContext.start(
+				"banking.transfer.lock-mode=" + lockMode,
+				"banking.transfer.max-attempts=50");
+		transactionService = context.getBean(TransactionService.class);
+		accountNumbers = BenchmarkContext.openAccounts(context, accounts, "1000000000.00");
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public void transferMoney() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int from = random.nextInt(accounts);
+		int to = (from + 1 + random.nextInt(accounts - 1)) % accounts;
+		transactionService.transferMoney(accountNumbers.get(from), accountNumbers.get(to), AMOUNT);
+	}
+}
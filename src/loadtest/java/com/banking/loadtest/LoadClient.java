@@ -0,0 +1,178 @@
+package com.banking.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+import org.HdrHistogram.Histogram;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+// One simulated user: logs in, then issues the configured mix of calls until
+// the run ends. With --rate each call has an intended start time and its
+// latency is measured from that time, so a stalled server shows up in the
+// percentiles instead of silently lowering the request rate.
+final class LoadClient implements Runnable {
+
+	private static final long HIGHEST_TRACKABLE = TimeUnit.SECONDS.toNanos(60);
+	private static final ObjectMapper JSON = JsonMapper.builder().build();
+	private static final HttpClient HTTP = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(5))
+			.build();
+
+	private final String baseUrl;
+	private final LoadTestOptions options;
+	private final List<LoadTest.Customer> customers;
+	private final LoadTest.Customer me;
+	private final long measureFrom;
+	private final long measureUntil;
+	private final Operation[] wheel;
+
+	private final Map<Operation, Histogram> histograms = LoadTest.perOperation(LoadClient::newHistogram);
+	private final Map<Operation, AtomicLong> errors = LoadTest.perOperation(AtomicLong::new);
+
+	private String token;
+	private String adminToken;
+
+	LoadClient(String baseUrl, LoadTestOptions options, List<LoadTest.Customer> customers,
+			LoadTest.Customer me, long measureFrom, long measureUntil) {
+		this.baseUrl = baseUrl;
+		this.options = options;
+		this.customers = customers;
+		this.me = me;
+		this.measureFrom = measureFrom;
+		this.measureUntil = measureUntil;
+		this.wheel = wheel(options.mix());
+	}
+
+	static Histogram newHistogram() {
+		return new Histogram(HIGHEST_TRACKABLE, 3);
+	}
+
+	Histogram histogram(Operation operation) {
+		return histograms.get(operation);
+	}
+
+	long errors(Operation operation) {
+		return errors.get(operation).get();
+	}
+
+	@Override
+	public void run() {
+		try {
+			token = login(me.username());
+			adminToken = login(LoadTest.ADMIN);
+		} catch (Exception e) {
+			errors.get(Operation.LOGIN).incrementAndGet();
+			return;
+		}
+
+		long interval = options.ratePerClient() > 0
+				? (long) (TimeUnit.SECONDS.toNanos(1) / options.ratePerClient())
+				: 0;
+		long intended = System.nanoTime();
+
+		while (true) {
+			if (interval > 0) {
+				intended += interval;
+				long wait = intended - System.nanoTime();
+				if (wait > 0) {
+					LockSupport.parkNanos(wait);
+				}
+			}
+			long start = interval > 0 ? intended : System.nanoTime();
+			if (start >= measureUntil) {
+				return;
+			}
+
+			Operation operation = wheel[ThreadLocalRandom.current().nextInt(wheel.length)];
+			boolean ok;
+			try {
+				ok = call(operation);
+			} catch (Exception e) {
+				ok = false;
+			}
+			long end = System.nanoTime();
+
+			if (start >= measureFrom) {
+				if (ok) {
+					histograms.get(operation).recordValue(Math.min(end - start, HIGHEST_TRACKABLE));
+				} else {
+					errors.get(operation).incrementAndGet();
+				}
+			}
+		}
+	}
+
+	private boolean call(Operation operation) throws Exception {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		String myAccount = me.accounts().get(random.nextInt(me.accounts().size()));
+		HttpResponse<String> response = switch (operation) {
+			case LOGIN -> send(post("/api/users/login", null,
+					"{\"username\":\"" + me.username() + "\",\"password\":\"" + LoadTest.PASSWORD + "\"}"));
+			case TRANSFER -> {
+				LoadTest.Customer other = customers.get(random.nextInt(customers.size()));
+				String toAccount = other.accounts().get(random.nextInt(other.accounts().size()));
+				yield send(post("/api/transactions/transfer", token,
+						"{\"fromAccount\":\"" + myAccount + "\",\"toAccount\":\"" + toAccount
+								+ "\",\"amount\":\"1.00\"}"));
+			}
+			case HISTORY -> send(get("/api/transactions/account/" + myAccount + "?limit=20", token));
+			case ADMIN_LIST -> send(get("/api/accounts", adminToken));
+		};
+		return response.statusCode() < 300;
+	}
+
+	private String login(String username) throws Exception {
+		HttpResponse<String> response = send(post("/api/users/login", null,
+				"{\"username\":\"" + username + "\",\"password\":\"" + LoadTest.PASSWORD + "\"}"));
+		JsonNode body = JSON.readTree(response.body());
+		if (response.statusCode() >= 300 || !body.path("success").asBoolean()) {
+			throw new IllegalStateException("Login failed for " + username + ": " + response.body());
+		}
+		return body.path("token").asString();
+	}
+
+	private HttpRequest.Builder request(String path, String bearer) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+				.timeout(Duration.ofSeconds(30));
+		if (bearer != null) {
+			builder.header("Authorization", "Bearer " + bearer);
+		}
+		return builder;
+	}
+
+	private HttpRequest get(String path, String bearer) {
+		return request(path, bearer).GET().build();
+	}
+
+	private HttpRequest post(String path, String bearer, String json) {
+		return request(path, bearer)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(json))
+				.build();
+	}
+
+	private static HttpResponse<String> send(HttpRequest request) throws Exception {
+		return HTTP.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	// Operations repeated by weight, for a uniform pick
+	private static Operation[] wheel(Map<Operation, Integer> mix) {
+		return mix.entrySet().stream()
+				.flatMap(e -> Stream.generate(e::getKey).limit(e.getValue()))
+				.toArray(Operation[]::new);
+	}
+}
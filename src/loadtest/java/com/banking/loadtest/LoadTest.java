@@ -0,0 +1,174 @@
+package com.banking.loadtest;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.banking.BankingAccountManagementSystemApplication;
+import com.banking.model.Account;
+import com.banking.model.User;
+import com.banking.service.AccountService;
+import com.banking.service.UserService;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+// Boots the application on the in-memory H2 "test" profile, seeds users and
+// accounts, and drives the real /api endpoints over HTTP from many
+// concurrent clients. Prints throughput and HdrHistogram percentiles per
+// operation and writes them to --output as JSON.
+//
+// mvn -B -Pload-test -DskipTests verify -Dloadtest.args="--clients=64 --duration=60"
+public final class LoadTest {
+
+	static final String PASSWORD = "LoadTest#2024";
+	static final String ADMIN = "loadtest-admin";
+
+	private LoadTest() {}
+
+	public static void main(String[] args) throws Exception {
+		LoadTestOptions options = LoadTestOptions.parse(args);
+		// devtools would restart main() in its own class loader
+		System.setProperty("spring.devtools.restart.enabled", "false");
+
+		List<String> applicationArgs = new ArrayList<>(List.of(
+				"--server.port=0",
+				"--spring.jpa.show-sql=false",
+				"--logging.level.root=WARN"));
+		applicationArgs.addAll(options.applicationArgs());
+
+		try (ConfigurableApplicationContext context =
+				new SpringApplicationBuilder(BankingAccountManagementSystemApplication.class)
+						.profiles("test")
+						.run(applicationArgs.toArray(String[]::new))) {
+
+			String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+			List<Customer> customers = seed(context, options);
+			System.out.printf("Seeded %d customers, %d accounts; %d clients for %ds after %ds warmup%n",
+					customers.size(), customers.size() * options.accountsPerUser(),
+					options.clients(), options.duration().toSeconds(), options.warmup().toSeconds());
+
+			long measureFrom = System.nanoTime() + options.warmup().toNanos();
+			long measureUntil = measureFrom + options.duration().toNanos();
+
+			List<LoadClient> clients = new ArrayList<>();
+			List<Thread> threads = new ArrayList<>();
+			for (int i = 0; i < options.clients(); i++) {
+				LoadClient client = new LoadClient(baseUrl, options, customers,
+						customers.get(i % customers.size()), measureFrom, measureUntil);
+				clients.add(client);
+				threads.add(Thread.ofVirtual().name("load-client-" + i).start(client));
+			}
+			for (Thread thread : threads) {
+				thread.join();
+			}
+
+			report(options, clients);
+		}
+	}
+
+	private static List<Customer> seed(ConfigurableApplicationContext context, LoadTestOptions options) {
+		UserService userService = context.getBean(UserService.class);
+		AccountService accountService = context.getBean(AccountService.class);
+
+		userService.createUser(new User("Load", "Admin", ADMIN, PASSWORD,
+				ADMIN + "@loadtest.local", "9000000000", "ADMIN"));
+
+		String[] types = {"SAVINGS", "CURRENT"};
+		List<Customer> customers = new ArrayList<>(options.users());
+		for (int i = 0; i < options.users(); i++) {
+			String username = "loadtest-" + i;
+			User user = userService.createUser(new User("Load", "Customer" + i, username, PASSWORD,
+					username + "@loadtest.local", String.format("9%09d", i), "CUSTOMER"));
+			List<String> accounts = new ArrayList<>();
+			for (int a = 0; a < options.accountsPerUser(); a++) {
+				Account account = new Account();
+				account.setUserId(user.getUserId());
+				account.setAccountType(types[a]);
+				account.setBalance(new BigDecimal("1000000.00"));
+				accounts.add(accountService.createAccount(account).getAccountNumber());
+			}
+			customers.add(new Customer(username, accounts));
+		}
+		return customers;
+	}
+
+	private static void report(LoadTestOptions options, List<LoadClient> clients) throws Exception {
+		double seconds = options.duration().toMillis() / 1000.0;
+		Map<String, Object> results = new LinkedHashMap<>();
+		long totalOk = 0;
+		long totalErrors = 0;
+
+		System.out.printf("%n%-12s %10s %8s %10s %10s %10s %10s %10s%n",
+				"operation", "ok", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+		for (Operation operation : Operation.values()) {
+			Histogram merged = LoadClient.newHistogram();
+			long errors = 0;
+			for (LoadClient client : clients) {
+				merged.add(client.histogram(operation));
+				errors += client.errors(operation);
+			}
+			if (merged.getTotalCount() == 0 && errors == 0) {
+				continue;
+			}
+			totalOk += merged.getTotalCount();
+			totalErrors += errors;
+
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("ok", merged.getTotalCount());
+			row.put("errors", errors);
+			row.put("throughputPerSecond", merged.getTotalCount() / seconds);
+			row.put("p50Ms", millis(merged.getValueAtPercentile(50)));
+			row.put("p99Ms", millis(merged.getValueAtPercentile(99)));
+			row.put("p999Ms", millis(merged.getValueAtPercentile(99.9)));
+			row.put("maxMs", millis(merged.getMaxValue()));
+			results.put(operation.label(), row);
+
+			System.out.printf("%-12s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+					operation.label(), merged.getTotalCount(), errors, merged.getTotalCount() / seconds,
+					row.get("p50Ms"), row.get("p99Ms"), row.get("p999Ms"), row.get("maxMs"));
+		}
+		System.out.printf("%-12s %10d %8d %10.1f%n", "total", totalOk, totalErrors, totalOk / seconds);
+
+		Map<String, Object> document = new LinkedHashMap<>();
+		document.put("clients", options.clients());
+		document.put("durationSeconds", options.duration().toSeconds());
+		document.put("ratePerClient", options.ratePerClient());
+		document.put("users", options.users());
+		document.put("accountsPerUser", options.accountsPerUser());
+		document.put("applicationArgs", options.applicationArgs());
+		document.put("throughputPerSecond", totalOk / seconds);
+		document.put("operations", results);
+
+		ObjectMapper objectMapper = JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build();
+		File output = new File(options.output());
+		output.getAbsoluteFile().getParentFile().mkdirs();
+		objectMapper.writeValue(output, document);
+		System.out.println("Results written to " + output);
+	}
+
+	private static double millis(long nanos) {
+		return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	record Customer(String username, List<String> accounts) {}
+
+	static <T> Map<Operation, T> perOperation(Supplier<T> factory) {
+		Map<Operation, T> map = new EnumMap<>(Operation.class);
+		for (Operation operation : Operation.values()) {
+			map.put(operation, factory.get());
+		}
+		return map;
+	}
+}
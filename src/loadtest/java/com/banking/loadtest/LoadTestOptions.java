@@ -0,0 +1,63 @@
+package com.banking.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Command line of the load test. Its own options are --name=value; any other
+// --name=value (e.g. --banking.transfer.lock-mode=LEDGER) is passed on to
+// the application under test.
+record LoadTestOptions(
+		int clients,
+		Duration warmup,
+		Duration duration,
+		int users,
+		int accountsPerUser,
+		double ratePerClient,
+		Map<Operation, Integer> mix,
+		String output,
+		List<String> applicationArgs) {
+
+	static LoadTestOptions parse(String[] args) {
+		Map<String, String> own = new LinkedHashMap<>();
+		List<String> applicationArgs = new ArrayList<>();
+		for (String arg : args) {
+			if (!arg.startsWith("--") || !arg.contains("=")) {
+				throw new IllegalArgumentException("Expected --name=value, got " + arg);
+			}
+			String name = arg.substring(2, arg.indexOf('='));
+			String value = arg.substring(arg.indexOf('=') + 1);
+			if (name.contains(".")) {
+				applicationArgs.add(arg);
+			} else {
+				own.put(name, value);
+			}
+		}
+		LoadTestOptions options = new LoadTestOptions(
+				Integer.parseInt(own.getOrDefault("clients", "32")),
+				Duration.ofSeconds(Long.parseLong(own.getOrDefault("warmup", "10"))),
+				Duration.ofSeconds(Long.parseLong(own.getOrDefault("duration", "30"))),
+				Integer.parseInt(own.getOrDefault("users", "200")),
+				Integer.parseInt(own.getOrDefault("accounts-per-user", "2")),
+				Double.parseDouble(own.getOrDefault("rate", "0")),
+				parseMix(own.getOrDefault("mix", "login:5,transfer:50,history:40,admin-list:5")),
+				own.getOrDefault("output", "target/loadtest-result.json"),
+				applicationArgs);
+		if (options.accountsPerUser() < 1 || options.accountsPerUser() > 2) {
+			throw new IllegalArgumentException("accounts-per-user must be 1 or 2 (the per-customer limit)");
+		}
+		return options;
+	}
+
+	// "login:5,transfer:50" -> weights per operation
+	private static Map<Operation, Integer> parseMix(String value) {
+		Map<Operation, Integer> mix = new LinkedHashMap<>();
+		for (String part : value.split(",")) {
+			String[] pair = part.trim().split(":");
+			mix.put(Operation.fromName(pair[0]), Integer.parseInt(pair[1]));
+		}
+		return mix;
+	}
+}
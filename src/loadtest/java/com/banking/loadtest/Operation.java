@@ -0,0 +1,29 @@
+package com.banking.loadtest;
+
+import java.util.Arrays;
+
+// The calls a load test client can make; names are used in --mix and in the report
+enum Operation {
+
+	LOGIN("login"),
+	TRANSFER("transfer"),
+	HISTORY("history"),
+	ADMIN_LIST("admin-list");
+
+	private final String label;
+
+	Operation(String label) {
+		this.label = label;
+	}
+
+	String label() {
+		return label;
+	}
+
+	static Operation fromName(String name) {
+		return Arrays.stream(values())
+				.filter(o -> o.label.equals(name))
+				.findFirst()
+				.orElseThrow(() -> new IllegalArgumentException("Unknown operation " + name));
+	}
+}
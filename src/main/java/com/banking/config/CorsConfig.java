@@ -1,26 +1,40 @@
 package com.banking.config;
 
+import java.util.List;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.CorsRegistry;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.core.Ordered;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import org.springframework.web.filter.CorsFilter;
 
+// A servlet filter rather than an MVC mapping: it runs before
+// SessionTokenFilter, so the 401s written there carry the CORS headers and
+// the Angular app can read them
 @Configuration
 public class CorsConfig {
 	
 	@Bean
-	public WebMvcConfigurer corsConfigurer() {
-		return new WebMvcConfigurer() {
-			@Override
-			public void addCorsMappings(CorsRegistry registry) {
-				registry.addMapping("/api/**")
-				        .allowedOrigins("http://localhost:4200")
-				        .allowedMethods("GET","POST","PUT","DELETE","OPTIONS")
-				        .allowedHeaders("*")
-				        .allowCredentials(true);
-				        
-			}
-		};
+	public FilterRegistrationBean<CorsFilter> corsFilter() {
+		CorsConfiguration config = new CorsConfiguration();
+		config.setAllowedOrigins(List.of("http://localhost:4200"));
+		config.setAllowedMethods(List.of("GET","POST","PUT","DELETE","OPTIONS"));
+		config.setAllowedHeaders(List.of("*"));
+		// every response header the API sets for clients to read; the
+		// browser hides anything not listed here from the Angular app
+		config.setExposedHeaders(List.of("ETag", "Idempotent-Replayed", "Location", "Retry-After",
+				"Content-Disposition", "X-Export-Sequence", "X-Export-Last-Id"));
+		config.setAllowCredentials(true);
+		
+		UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+		source.registerCorsConfiguration("/api/**", config);
+		
+		FilterRegistrationBean<CorsFilter> registration = new FilterRegistrationBean<>(new CorsFilter(source));
+		// after InFlightRequestFilter, before SessionTokenFilter
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+		return registration;
 	}
 
 }
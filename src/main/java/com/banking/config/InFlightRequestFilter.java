@@ -0,0 +1,54 @@
+package com.banking.config;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Counts /api requests currently being served and the peak since startup,
+// to compare how much concurrency a node holds on platform vs virtual threads
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class InFlightRequestFilter extends OncePerRequestFilter {
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final LongAccumulator peak = new LongAccumulator(Math::max, 0);
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !request.getRequestURI().startsWith("/api/");
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+			FilterChain chain) throws ServletException, IOException {
+		peak.accumulate(inFlight.incrementAndGet());
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			inFlight.decrementAndGet();
+		}
+	}
+
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	public long getPeak() {
+		return peak.get();
+	}
+
+	public void resetPeak() {
+		peak.reset();
+		peak.accumulate(inFlight.get());
+	}
+}
@@ -0,0 +1,135 @@
+package com.banking.config;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.banking.dto.AuthenticatedUser;
+import com.banking.service.SessionTokenService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Verifies the "Authorization: Bearer <token>" issued by /api/users/login and
+// replaces the userRole / userId request headers with the values from the
+// token, so the controllers and RoleValidator only ever see a verified
+// identity. Client supplied userRole / userId headers are ignored.
+@Component
+public class SessionTokenFilter extends OncePerRequestFilter {
+
+	private static final String BEARER = "Bearer ";
+	private static final String EVENTS_SUFFIX = "/events";
+	private static final String ACCESS_TOKEN_PARAM = "access_token";
+
+	@Autowired
+	private SessionTokenService sessionTokenService;
+
+	// false keeps the old trusted-header behaviour for clients not yet sending tokens
+	@Value("${banking.auth.enforce-tokens:true}")
+	private boolean enforceTokens;
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !request.getRequestURI().startsWith("/api/")
+				|| "OPTIONS".equals(request.getMethod());
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+			FilterChain chain) throws ServletException, IOException {
+
+		String token = bearerToken(request);
+		if (token != null) {
+			Optional<AuthenticatedUser> user = sessionTokenService.verify(token);
+			if (user.isEmpty()) {
+				reject(response, "Invalid or expired session token");
+				return;
+			}
+			request.setAttribute(AuthenticatedUser.ATTRIBUTE, user.get());
+			chain.doFilter(new IdentityRequest(request, user.get()), response);
+			return;
+		}
+
+		if (!enforceTokens) {
+			chain.doFilter(request, response);
+			return;
+		}
+		if (isPublic(request)) {
+			chain.doFilter(new IdentityRequest(request, null), response);
+			return;
+		}
+		reject(response, "Authentication required");
+	}
+
+	// EventSource cannot set headers, so event streams may carry the token
+	// as ?access_token= instead; no other endpoint accepts it in the URL
+	private String bearerToken(HttpServletRequest request) {
+		String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+		if (header != null && header.startsWith(BEARER)) {
+			return header.substring(BEARER.length());
+		}
+		if ("GET".equals(request.getMethod()) && request.getRequestURI().endsWith(EVENTS_SUFFIX)) {
+			return request.getParameter(ACCESS_TOKEN_PARAM);
+		}
+		return null;
+	}
+
+	private boolean isPublic(HttpServletRequest request) {
+		String uri = request.getRequestURI();
+		return uri.equals("/api/users/login")
+				|| uri.equals("/api/users/register")
+				|| uri.startsWith("/api/users/check-username/")
+				|| uri.startsWith("/api/users/check-email/");
+	}
+
+	private void reject(HttpServletResponse response, String message) throws IOException {
+		response.setStatus(HttpStatus.UNAUTHORIZED.value());
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		response.getWriter().write("{\"success\":false,\"message\":\"" + message + "\"}");
+	}
+
+	// Serves userRole / userId from the verified token (or hides them when anonymous)
+	private static final class IdentityRequest extends HttpServletRequestWrapper {
+
+		private final AuthenticatedUser user;
+
+		IdentityRequest(HttpServletRequest request, AuthenticatedUser user) {
+			super(request);
+			this.user = user;
+		}
+
+		@Override
+		public String getHeader(String name) {
+			if ("userRole".equalsIgnoreCase(name)) {
+				return user == null ? null : user.role();
+			}
+			if ("userId".equalsIgnoreCase(name)) {
+				return user == null ? null : String.valueOf(user.userId());
+			}
+			return super.getHeader(name);
+		}
+
+		@Override
+		public Enumeration<String> getHeaders(String name) {
+			if ("userRole".equalsIgnoreCase(name) || "userId".equalsIgnoreCase(name)) {
+				String value = getHeader(name);
+				return value == null
+						? Collections.emptyEnumeration()
+						: Collections.enumeration(Collections.singletonList(value));
+			}
+			return super.getHeaders(name);
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package com.banking.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Only active with spring.threads.virtual.enabled=true. Streams the JFR
+// jdk.VirtualThreadPinned event in-process: a virtual thread that blocks
+// while pinned (synchronized blocks, native frames) holds its carrier
+// thread, which quietly caps throughput at the carrier count.
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+	private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+	private static final String EVENT = "jdk.VirtualThreadPinned";
+	private static final int MAX_SITES = 100;
+
+	@Value("${banking.diagnostics.pinning-threshold-ms:20}")
+	private long thresholdMs;
+
+	private final LongAdder pinnedEvents = new LongAdder();
+	private final Map<String, LongAdder> pinnedBySite = new ConcurrentHashMap<>();
+
+	private RecordingStream stream;
+
+	@PostConstruct
+	void start() {
+		stream = new RecordingStream();
+		stream.enable(EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+		stream.onEvent(EVENT, this::record);
+		stream.startAsync();
+	}
+
+	@PreDestroy
+	void stop() {
+		stream.close();
+	}
+
+	private void record(RecordedEvent event) {
+		pinnedEvents.increment();
+		String site = pinningSite(event);
+		LongAdder count = pinnedBySite.get(site);
+		if (count == null && pinnedBySite.size() < MAX_SITES) {
+			count = pinnedBySite.computeIfAbsent(site, s -> new LongAdder());
+			// first sighting of a site only, later ones are just counted
+			log.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), site);
+		}
+		if (count != null) {
+			count.increment();
+		}
+	}
+
+	// First application frame if there is one, otherwise the top frame
+	private String pinningSite(RecordedEvent event) {
+		if (event.getStackTrace() == null || event.getStackTrace().getFrames().isEmpty()) {
+			return "unknown";
+		}
+		List<RecordedFrame> frames = event.getStackTrace().getFrames();
+		RecordedFrame site = frames.stream()
+				.filter(f -> f.getMethod().getType().getName().startsWith("com.banking."))
+				.findFirst()
+				.orElse(frames.get(0));
+		return site.getMethod().getType().getName() + "." + site.getMethod().getName()
+				+ ":" + site.getLineNumber();
+	}
+
+	public Map<String, Object> stats() {
+		Map<String, Long> sites = new LinkedHashMap<>();
+		pinnedBySite.entrySet().stream()
+				.sorted((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()))
+				.forEach(e -> sites.put(e.getKey(), e.getValue().sum()));
+
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("thresholdMs", thresholdMs);
+		stats.put("pinnedEvents", pinnedEvents.sum());
+		stats.put("pinnedBySite", sites);
+		return stats;
+	}
+}
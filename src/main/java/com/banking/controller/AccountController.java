@@ -5,12 +5,20 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.banking.dto.AccountSnapshot;
+import com.banking.dto.AccountSummary;
 import com.banking.model.Account;
+import com.banking.service.AccountEventHub;
 import com.banking.service.AccountService;
+import com.banking.service.ETags;
 import com.banking.service.RoleValidator;
 
 @RestController
@@ -24,6 +32,12 @@ public class AccountController {
 	@Autowired
 	private RoleValidator roleValidator;
 	
+	@Autowired
+	private ETags eTags;
+	
+	@Autowired
+	private AccountEventHub accountEventHub;
+	
 	@PostMapping
 	public ResponseEntity<?> createAccount(
 			@RequestBody Account account,
@@ -49,7 +63,7 @@ public class AccountController {
 	public ResponseEntity<?> getAllAccounts(@RequestHeader("userRole") String role){
 		try {
 			roleValidator.validateAdmin(role);
-			List<Account> accounts = accountService.getAllAccounts();
+			List<AccountSummary> accounts = accountService.getAllAccounts();
 			Map<String,Object> response = new HashMap<>();
 			response.put("success", true);
 			response.put("accounts", accounts);
@@ -67,15 +81,22 @@ public class AccountController {
 	public ResponseEntity<?> getAccountByNumber(
 			@PathVariable String accountNumber,
 			@RequestHeader("userRole") String role,
-			@RequestHeader("userId") Long loggedInUserId){
+			@RequestHeader("userId") Long loggedInUserId,
+			WebRequest webRequest){
 		try {
-			Account account = accountService.getAccountByNumber(accountNumber)
+			AccountSnapshot account = accountService.getAccountSnapshot(accountNumber)
 					.orElseThrow(() -> new RuntimeException("Account not found"));
-			roleValidator.validateAccountAccess(role,account.getUserId(), loggedInUserId);
+			roleValidator.validateAccountAccess(role,account.userId(), loggedInUserId);
+			// Polls that already hold this state get a 304 without a body
+			String etag = eTags.forAccount(account);
+			if(webRequest.checkNotModified(etag)) {
+				return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+						.eTag(etag).cacheControl(ETags.REVALIDATE).build();
+			}
 			Map<String,Object> response = new HashMap<>();
 			response.put("success", true);
 			response.put("account", account);
-			return ResponseEntity.ok(response);
+			return ResponseEntity.ok().eTag(etag).cacheControl(ETags.REVALIDATE).body(response);
 		}catch(Exception e) {
 			Map<String, Object> response = new HashMap<>();
 			response.put("success", false);
@@ -84,6 +105,45 @@ public class AccountController {
 		}
 	}
 	
+	// Server-Sent Events: TRANSFER_IN / TRANSFER_OUT with the new balance,
+	// pushed after each transfer commits. EventSource cannot send headers, so
+	// the session token may be passed as ?access_token= on this endpoint.
+	@GetMapping("/{accountNumber}/events")
+	public ResponseEntity<?> streamAccountEvents(
+			@PathVariable String accountNumber,
+			@RequestHeader("userRole") String role,
+			@RequestHeader("userId") Long loggedInUserId){
+		try {
+			AccountSnapshot account = accountService.getAccountSnapshot(accountNumber)
+					.orElseThrow(() -> new RuntimeException("Account not found"));
+			roleValidator.validateAccountAccess(role,account.userId(), loggedInUserId);
+		}catch(Exception e) {
+			Map<String, Object> response = new HashMap<>();
+			response.put("success", false);
+			response.put("message", e.getMessage());
+			// explicit, or an Accept: text/event-stream request gets a 406
+			return ResponseEntity.status(HttpStatus.FORBIDDEN)
+					.contentType(MediaType.APPLICATION_JSON)
+					.body(response);
+		}
+		// Stream limits are a capacity problem, not an access one: 503 with
+		// Retry-After so that clients back off and try again
+		try {
+			SseEmitter emitter = accountEventHub.subscribe(accountNumber);
+			return ResponseEntity.ok()
+					.header("X-Accel-Buffering", "no")
+					.body(emitter);
+		}catch(Exception e) {
+			Map<String, Object> response = new HashMap<>();
+			response.put("success", false);
+			response.put("message", e.getMessage());
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+					.header(HttpHeaders.RETRY_AFTER, "10")
+					.contentType(MediaType.APPLICATION_JSON)
+					.body(response);
+		}
+	}
+	
 	@GetMapping("/user/{userId}")
 	public ResponseEntity<?> getAccountsByUserId(
 			@PathVariable Long userId,
@@ -91,7 +151,7 @@ public class AccountController {
 			@RequestHeader("userId") Long loggedInUserId){
 		try {
 			roleValidator.validateCustomerAccessById(role, userId, loggedInUserId);
-			List<Account> accounts= accountService.getAccountsByUserId(userId);
+			List<AccountSummary> accounts= accountService.getAccountsByUserId(userId);
 			Map<String,Object> response = new HashMap<>();
 			response.put("success", true);
 			response.put("account", accounts);
@@ -111,7 +171,7 @@ public class AccountController {
 			@RequestHeader("userRole") String role){
 		try {
 			roleValidator.validateAdmin(role);
-			List<Account> accounts = accountService.getAccountsByStatus(status);
+			List<AccountSummary> accounts = accountService.getAccountsByStatus(status);
 			Map<String, Object> response = new HashMap<>();
 			response.put("success", true);
 			response.put("account", accounts);
@@ -131,7 +191,7 @@ public class AccountController {
 			@RequestHeader("userRole") String role){
 		try {
 			roleValidator.validateAdmin(role);
-			List<Account> accounts = accountService.getAccountsByType(accountType);
+			List<AccountSummary> accounts = accountService.getAccountsByType(accountType);
 			Map<String, Object> response = new HashMap<>();
 			response.put("success", true);
 			response.put("account", accounts);
@@ -167,6 +227,31 @@ public class AccountController {
 		}
 	}
 	
+	@PutMapping("/{accountNumber}/balance-slots")
+	public ResponseEntity<?> updateBalanceSlots(
+			@PathVariable String accountNumber,
+			@RequestBody Map<String, Integer> slotData,
+			@RequestHeader("userRole") String role){
+		try {
+			roleValidator.validateAdmin(role);
+			Integer slots=slotData.get("slots");
+			if(slots == null) {
+				throw new RuntimeException("slots is required");
+			}
+			Account account = accountService.updateBalanceSlots(accountNumber, slots);
+			Map<String, Object> response = new HashMap<>();
+			response.put("success", true);
+			response.put("message", "Account balance slots updated");
+			response.put("account", account);
+			return ResponseEntity.ok(response);
+		}catch(Exception e) {
+			Map<String, Object> response = new HashMap<>();
+			response.put("success", false);
+			response.put("message", e.getMessage());
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+		}
+	}
+	
 	@PutMapping("/{acountNumber}/close")
 	public ResponseEntity<?> closeAccount(
 			@PathVariable String accountNumber,
@@ -205,4 +290,21 @@ public class AccountController {
 			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
 		}
 	}
+	
+	@GetMapping("/admin/cache-stats")
+	public ResponseEntity<?> getCacheStats(@RequestHeader("userRole") String role){
+		try {
+			roleValidator.validateAdmin(role);
+		}catch(Exception e) {
+			Map<String, Object> response = new HashMap<>();
+			response.put("success", false);
+			response.put("message", e.getMessage());
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+		}
+		// only the role check is a 403; anything else is a server error
+		Map<String, Object> response = new HashMap<>();
+		response.put("success", true);
+		response.put("stats", accountService.getCacheStats());
+		return ResponseEntity.ok(response);
+	}
 }
@@ -0,0 +1,120 @@
+package com.banking.controller;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.banking.config.InFlightRequestFilter;
+import com.banking.config.VirtualThreadPinningMonitor;
+import com.banking.service.AccountEventHub;
+import com.banking.service.AdminStatsService;
+import com.banking.service.RoleValidator;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = "http://localhost:4200")
+public class AdminController {
+
+    @Autowired
+    private RoleValidator roleValidator;
+
+    @Autowired
+    private InFlightRequestFilter inFlightRequestFilter;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private AdminStatsService adminStatsService;
+
+    @Autowired
+    private AccountEventHub accountEventHub;
+
+    // only present when virtual threads are enabled
+    @Autowired(required = false)
+    private VirtualThreadPinningMonitor pinningMonitor;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // =========================
+    // RUNTIME / CONCURRENCY
+    // =========================
+    @GetMapping("/runtime")
+    public ResponseEntity<?> getRuntime(
+            @RequestHeader("userRole") String role,
+            @RequestParam(defaultValue = "false") boolean resetPeak) {
+        try {
+            roleValidator.validateAdmin(role);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+        }
+
+        Map<String, Object> requests = new LinkedHashMap<>();
+        requests.put("inFlight", inFlightRequestFilter.getInFlight());
+        requests.put("peakInFlight", inFlightRequestFilter.getPeak());
+        if (resetPeak) {
+            inFlightRequestFilter.resetPeak();
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("virtualThreads", virtualThreads);
+        response.put("requests", requests);
+        response.put("connectionPool", poolStats());
+        response.put("eventStreams", accountEventHub.stats());
+        if (pinningMonitor != null) {
+            response.put("pinning", pinningMonitor.stats());
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    // =========================
+    // DASHBOARD STATISTICS
+    // =========================
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStats(@RequestHeader("userRole") String role) {
+        try {
+            roleValidator.validateAdmin(role);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+        }
+
+        // anything failing past the role check is a server error (500)
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("stats", adminStatsService.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    private Map<String, Object> poolStats() {
+        Map<String, Object> pool = new LinkedHashMap<>();
+        if (dataSource instanceof HikariDataSource hikari) {
+            pool.put("maximumPoolSize", hikari.getMaximumPoolSize());
+            HikariPoolMXBean mxBean = hikari.getHikariPoolMXBean();
+            if (mxBean != null) {
+                pool.put("active", mxBean.getActiveConnections());
+                pool.put("idle", mxBean.getIdleConnections());
+                // requests waiting for a connection: the real queue under virtual threads
+                pool.put("threadsAwaitingConnection", mxBean.getThreadsAwaitingConnection());
+            }
+        }
+        return pool;
+    }
+}
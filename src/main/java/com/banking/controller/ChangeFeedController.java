@@ -0,0 +1,60 @@
+package com.banking.controller;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.banking.service.ChangeFeedService;
+import com.banking.service.RoleValidator;
+
+@RestController
+@RequestMapping("/api/changes")
+@CrossOrigin(origins = "http://localhost:4200")
+public class ChangeFeedController {
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private RoleValidator roleValidator;
+
+    // =========================
+    // CHANGE FEED (since = nextCursor of the previous page, 0 to start
+    // from the oldest retained event)
+    // =========================
+    @GetMapping
+    public ResponseEntity<?> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "500") int limit,
+            @RequestHeader("userRole") String role) {
+        try {
+            roleValidator.validateAdmin(role);
+        } catch (Exception e) {
+            return failure(HttpStatus.FORBIDDEN, e.getMessage());
+        }
+
+        if (since < 0 || limit < 1) {
+            return failure(HttpStatus.BAD_REQUEST, "since must not be negative and limit must be positive");
+        }
+        // the retention purge removed events the consumer has not seen yet
+        if (since > 0 && !changeFeedService.isRetainedAfter(since)) {
+            return failure(HttpStatus.GONE,
+                    "Changes after " + since + " are no longer retained, start again from 0");
+        }
+
+        Map<String, Object> response = new HashMap<>(changeFeedService.getChanges(since, limit));
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+
+    private ResponseEntity<Map<String, Object>> failure(HttpStatus status, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", message);
+        return ResponseEntity.status(status).body(response);
+    }
+}
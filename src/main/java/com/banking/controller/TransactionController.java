@@ -1,19 +1,34 @@
 package com.banking.controller;
 
 import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import com.banking.model.Account;
+import com.banking.dto.AccountSnapshot;
+import com.banking.dto.TransactionPage;
 import com.banking.model.Transaction;
 import com.banking.service.AccountService;
+import com.banking.service.DailySummaryService;
+import com.banking.service.ETags;
+import com.banking.service.IdempotencyService;
 import com.banking.service.RoleValidator;
+import com.banking.service.StatementFormat;
+import com.banking.service.TransactionExportService;
 import com.banking.service.TransactionService;
+import com.banking.service.TransferPipeline;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -26,9 +41,21 @@ public class TransactionController {
     @Autowired
     private AccountService accountService;
 
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private DailySummaryService dailySummaryService;
+
     @Autowired
     private RoleValidator roleValidator;
 
+    @Autowired
+    private ETags eTags;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     // =========================
     // CUSTOMER FUND TRANSFER
     // =========================
@@ -36,7 +63,8 @@ public class TransactionController {
     public ResponseEntity<?> transferMoney(
             @RequestBody Map<String,Object> request,
             @RequestHeader("userRole") String role,
-            @RequestHeader("userId") Long userId){
+            @RequestHeader("userId") Long userId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey){
 
         try{
             if(!role.equals("CUSTOMER")){
@@ -48,26 +76,95 @@ public class TransactionController {
             BigDecimal amount =
                     new BigDecimal(request.get("amount").toString());
 
-            Account sender =
-                    accountService.getAccountByNumber(fromAccount)
-                    .orElseThrow(() -> new RuntimeException("Account not found"));
+            if(idempotencyKey == null && transactionService.isTransferPipelineEnabled()){
+                // Cheap checks from the cached snapshot; the writer checks
+                // everything again when it runs the transfer
+                AccountSnapshot sender = accountService.getAccountSnapshot(fromAccount)
+                        .orElseThrow(() -> new RuntimeException("Sender account not found"));
+                roleValidator.validateAccountAccess(role, sender.userId(), userId);
+
+                TransferPipeline.TransferStatus status =
+                        transactionService.submitTransfer(fromAccount, toAccount, amount, userId);
+
+                Map<String,Object> accepted = new HashMap<>();
+                accepted.put("success", true);
+                accepted.put("message", "Transfer accepted");
+                accepted.put("transferId", status.transferId());
+                accepted.put("status", status.state());
+                // queued in memory only: lost if the node stops before it runs
+                accepted.put("delivery", "AT_MOST_ONCE");
+
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .location(URI.create("/api/transactions/transfers/" + status.transferId()))
+                        .body(accepted);
+            }
+
+            Map<String,Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Transfer Successful");
+
+            if(idempotencyKey == null){
+                // Customer can use only his own account; ownership is
+                // checked by the debit statement itself
+                transactionService.transferMoney(
+                        fromAccount,
+                        toAccount,
+                        amount,
+                        userId
+                );
+                return ResponseEntity.ok(response);
+            }
+
+            // A retry with the same key gets the recorded response back
+            // without running the transfer again
+            IdempotencyService.Outcome outcome = idempotencyService.execute(
+                    userId,
+                    idempotencyKey,
+                    IdempotencyService.fingerprint(fromAccount, toAccount,
+                            amount.stripTrailingZeros().toPlainString()),
+                    response,
+                    record -> transactionService.transferMoney(
+                            fromAccount, toAccount, amount, userId, record)
+            );
+
+            return ResponseEntity.ok()
+                    .header("Idempotent-Replayed", String.valueOf(outcome.replayed()))
+                    .body(outcome.response());
+
+        }catch(Exception e){
+
+            Map<String,Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // =========================
+    // QUEUED TRANSFER STATUS
+    // =========================
+    @GetMapping("/transfers/{transferId}")
+    public ResponseEntity<?> getQueuedTransfer(
+            @PathVariable String transferId,
+            @RequestHeader("userRole") String role,
+            @RequestHeader("userId") Long userId){
+
+        try{
+
+            TransferPipeline.TransferStatus status =
+                    transactionService.getQueuedTransfer(transferId)
+                    .orElseThrow(() -> new RuntimeException("Transfer not found"));
 
-            // Customer can use only his own account
             roleValidator.validateAccountAccess(
                     role,
-                    sender.getUserId(),
+                    status.ownerUserId(),
                     userId
             );
 
-            transactionService.transferMoney(
-                    fromAccount,
-                    toAccount,
-                    amount
-            );
-
             Map<String,Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("message", "Transfer Successful");
+            response.put("transfer", status);
 
             return ResponseEntity.ok(response);
 
@@ -87,30 +184,42 @@ public class TransactionController {
     @GetMapping("/account/{accountNumber}")
     public ResponseEntity<?> getTransactionsByAccount(
             @PathVariable String accountNumber,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
             @RequestHeader("userRole") String role,
-            @RequestHeader("userId") Long userId){
+            @RequestHeader("userId") Long userId,
+            WebRequest webRequest){
 
         try{
 
-            Account account =
-                    accountService.getAccountByNumber(accountNumber)
+            AccountSnapshot account =
+                    accountService.getAccountSnapshot(accountNumber)
                     .orElseThrow(() -> new RuntimeException("Account not found"));
 
             roleValidator.validateAccountAccess(
                     role,
-                    account.getUserId(),
+                    account.userId(),
                     userId
             );
 
-            List<Transaction> list =
+            // The history only changes when a transfer touches the account
+            String etag = eTags.forHistory(accountNumber, "account", cursor, limit);
+            if(webRequest.checkNotModified(etag)){
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag).cacheControl(ETags.REVALIDATE).build();
+            }
+
+            TransactionPage page =
                     transactionService
-                    .getTransactionsByAccountNumber(accountNumber);
+                    .getTransactionsByAccountNumber(accountNumber, cursor, limit);
 
             Map<String,Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("transactions", list);
+            response.put("transactions", page.transactions());
+            response.put("nextCursor", page.nextCursor());
+            response.put("hasNext", page.hasNext());
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(etag).cacheControl(ETags.REVALIDATE).body(response);
 
         }catch(Exception e){
 
@@ -124,27 +233,84 @@ public class TransactionController {
     @GetMapping("/received/{accountNumber}")
     public ResponseEntity<?> getReceivedMoney(
             @PathVariable String accountNumber,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestHeader("userRole") String role,
+            @RequestHeader("userId") Long userId,
+            WebRequest webRequest){
+
+        try{
+
+            AccountSnapshot account = accountService
+                    .getAccountSnapshot(accountNumber)
+                    .orElseThrow(() -> new RuntimeException("Account not found"));
+
+            roleValidator.validateAccountAccess(
+                    role,
+                    account.userId(),
+                    userId
+            );
+
+            // The history only changes when a transfer touches the account
+            String etag = eTags.forHistory(accountNumber, "received", cursor, limit);
+            if(webRequest.checkNotModified(etag)){
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag).cacheControl(ETags.REVALIDATE).build();
+            }
+
+            TransactionPage page =
+                    transactionService.getReceivedMoney(accountNumber, cursor, limit);
+
+            Map<String,Object> res = new HashMap<>();
+            res.put("success", true);
+            res.put("transactions", page.transactions());
+            res.put("nextCursor", page.nextCursor());
+            res.put("hasNext", page.hasNext());
+
+            return ResponseEntity.ok().eTag(etag).cacheControl(ETags.REVALIDATE).body(res);
+
+        }catch(Exception e){
+
+            Map<String,Object> res = new HashMap<>();
+            res.put("success", false);
+            res.put("message", e.getMessage());
+
+            return ResponseEntity.badRequest().body(res);
+        }
+    }
+
+    // =========================
+    // DAILY IN / OUT SUMMARY
+    // =========================
+    @GetMapping("/account/{accountNumber}/summary")
+    public ResponseEntity<?> getDailySummary(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
             @RequestHeader("userRole") String role,
             @RequestHeader("userId") Long userId){
 
         try{
 
-            Account account = accountService
-                    .getAccountByNumber(accountNumber)
+            AccountSnapshot account = accountService
+                    .getAccountSnapshot(accountNumber)
                     .orElseThrow(() -> new RuntimeException("Account not found"));
 
             roleValidator.validateAccountAccess(
                     role,
-                    account.getUserId(),
+                    account.userId(),
                     userId
             );
 
-            List<Transaction> list =
-                    transactionService.getReceivedMoney(accountNumber);
+            // Defaults to the last 30 days
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : end.minusDays(29);
 
             Map<String,Object> res = new HashMap<>();
             res.put("success", true);
-            res.put("transactions", list);
+            res.putAll(dailySummaryService.getDailySummary(accountNumber, start, end));
 
             return ResponseEntity.ok(res);
 
@@ -157,12 +323,61 @@ public class TransactionController {
             return ResponseEntity.badRequest().body(res);
         }
     }
+
+    // =========================
+    // STATEMENT EXPORT (CSV / NDJSON)
+    // =========================
+    @GetMapping("/account/{accountNumber}/statement")
+    public ResponseEntity<?> exportStatement(
+            @PathVariable String accountNumber,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader("userRole") String role,
+            @RequestHeader("userId") Long userId){
+
+        try{
+
+            AccountSnapshot account = accountService
+                    .getAccountSnapshot(accountNumber)
+                    .orElseThrow(() -> new RuntimeException("Account not found"));
+
+            roleValidator.validateAccountAccess(
+                    role,
+                    account.userId(),
+                    userId
+            );
+
+            StatementFormat statementFormat = StatementFormat.parse(format);
+            StreamingResponseBody body = transactionExportService
+                    .statement(accountNumber, from, to, statementFormat);
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(
+                            statementFormat.getContentType() + ";charset=UTF-8"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"statement-" + accountNumber
+                            + "." + statementFormat.getExtension() + "\"")
+                    .body(body);
+
+        }catch(Exception e){
+
+            Map<String,Object> res = new HashMap<>();
+            res.put("success", false);
+            res.put("message", e.getMessage());
+
+            return ResponseEntity.badRequest().body(res);
+        }
+    }
     
  // =========================
  // ADMIN - ALL TRANSACTIONS
  // =========================
  @GetMapping("/admin/all")
  public ResponseEntity<?> getAllTransactionsForAdmin(
+         @RequestParam(defaultValue = "1000") int limit,
          @RequestHeader("userRole") String role) {
 
      try {
@@ -171,7 +386,7 @@ public class TransactionController {
          }
 
          List<Transaction> list =
-                 transactionService.getAllTransactions();
+                 transactionService.getLatestTransactions(limit);
 
          Map<String, Object> res = new HashMap<>();
          res.put("success", true);
@@ -189,5 +404,76 @@ public class TransactionController {
      }
  }
 
+ // =========================
+ // ADMIN - BULK EXPORT (gzip NDJSON, resumable)
+ // Full dump by id, or with afterSequence only the rows created since the
+ // X-Export-Sequence of an earlier export
+ // =========================
+ @GetMapping("/admin/export")
+ public ResponseEntity<?> exportAllTransactions(
+         @RequestParam(defaultValue = "0") long afterId,
+         @RequestParam(required = false) Long afterSequence,
+         @RequestParam(defaultValue = "5000") int chunkSize,
+         @RequestParam(defaultValue = "1") int workers,
+         @RequestHeader("userRole") String role) {
+
+     try {
+         roleValidator.validateAdmin(role);
+
+         TransactionExportService.BulkExport export = afterSequence == null
+                 ? transactionExportService.bulkExport(afterId, chunkSize, workers)
+                 : transactionExportService.changesExport(afterSequence, chunkSize, workers);
+
+         String fileName = afterSequence == null
+                 ? "transactions-" + afterId + "-" + export.lastId()
+                 : "transactions-changes-" + afterSequence + "-" + export.sequence();
+
+         ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                 .contentType(MediaType.parseMediaType("application/gzip"))
+                 .header(HttpHeaders.CONTENT_DISPOSITION,
+                         "attachment; filename=\"" + fileName + ".ndjson.gz\"")
+                 .header("X-Export-Sequence", String.valueOf(export.sequence()));
+         if (export.lastId() != null) {
+             response.header("X-Export-Last-Id", String.valueOf(export.lastId()));
+         }
+         return response.body(export.body());
+
+     } catch (Exception e) {
+
+         Map<String, Object> res = new HashMap<>();
+         res.put("success", false);
+         res.put("message", e.getMessage());
+
+         return ResponseEntity.badRequest().body(res);
+     }
+ }
+
+ // =========================
+ // ADMIN - TRANSFER ENGINE STATS
+ // =========================
+ @GetMapping("/admin/transfer-stats")
+ public ResponseEntity<?> getTransferStats(
+         @RequestHeader("userRole") String role) {
+
+     try {
+         roleValidator.validateAdmin(role);
+
+     } catch (Exception e) {
+
+         Map<String, Object> res = new HashMap<>();
+         res.put("success", false);
+         res.put("message", e.getMessage());
+
+         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(res);
+     }
+
+     // only the role check is a 403; anything else is a server error
+     Map<String, Object> res = new HashMap<>();
+     res.put("success", true);
+     res.put("lockMode", transactionService.getTransferLockMode());
+     res.put("stats", transactionService.getTransferStats());
+
+     return ResponseEntity.ok(res);
+ }
 
 }
@@ -1,8 +1,11 @@
 package com.banking.controller;
 
+import com.banking.dto.AuthenticatedUser;
+import com.banking.dto.UserSummary;
 import com.banking.model.User;
 import com.banking.service.UserService;
 import com.banking.service.RoleValidator;
+import com.banking.service.SessionTokenService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +25,9 @@ public class UserController {
     @Autowired
     private RoleValidator roleValidator;
     
+    @Autowired
+    private SessionTokenService sessionTokenService;
+    
     
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(
@@ -55,9 +61,14 @@ public class UserController {
             String password = loginData.get("password");
             
             User user = userService.login(username, password);
+            AuthenticatedUser session =
+                    sessionTokenService.issue(user.getUserId(), user.getRole());
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
+            // send as "Authorization: Bearer <token>" on every other /api call
+            response.put("token", sessionTokenService.encode(session));
+            response.put("expiresAt", session.expiresAt());
             response.put("userId", user.getUserId());
             response.put("username", user.getUsername());
             response.put("role", user.getRole());
@@ -82,7 +93,7 @@ public class UserController {
             @RequestHeader("userRole") String role) {
         try {
             roleValidator.validateAdmin(role);
-            List<User> users = userService.getAllUsers();
+            List<UserSummary> users = userService.getAllUsers();
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -127,7 +138,7 @@ public class UserController {
             @RequestHeader("userRole") String role) {
         try {
             roleValidator.validateAdmin(role);
-            List<User> customers = userService.getUsersByRole("CUSTOMER");
+            List<UserSummary> customers = userService.getUsersByRole("CUSTOMER");
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -148,7 +159,7 @@ public class UserController {
             @RequestHeader("userRole") String role) {
         try {
             roleValidator.validateAdmin(role);
-            List<User> admins = userService.getUsersByRole("ADMIN");
+            List<UserSummary> admins = userService.getUsersByRole("ADMIN");
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
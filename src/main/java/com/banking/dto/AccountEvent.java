@@ -0,0 +1,24 @@
+package com.banking.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One change pushed to an account's event stream: a committed transfer
+// (TRANSFER_IN / TRANSFER_OUT) with the balance right after it, or the
+// BALANCE sent when a client subscribes. A transfer's balance is null when
+// it is not known (see TransferCompletedEvent) or when the client already
+// has a newer one; the client then keeps its balance and applies the amount
+// or waits for the next event.
+public record AccountEvent(
+        String accountNumber,
+        String type,
+        BigDecimal amount,
+        String counterparty,
+        Long transactionId,
+        BigDecimal balance,
+        LocalDateTime time) {
+
+    public AccountEvent withoutBalance() {
+        return new AccountEvent(accountNumber, type, amount, counterparty, transactionId, null, time);
+    }
+}
@@ -0,0 +1,30 @@
+package com.banking.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.banking.model.Account;
+
+// Immutable copy of an Account row, safe to share between requests
+public record AccountSnapshot(
+        String accountNumber,
+        Long userId,
+        String accountType,
+        BigDecimal balance,
+        String currency,
+        LocalDateTime openedAt,
+        String status,
+        Long version) {
+
+    public static AccountSnapshot of(Account account) {
+        return new AccountSnapshot(
+                account.getAccountNumber(),
+                account.getUserId(),
+                account.getAccountType(),
+                account.getBalance(),
+                account.getCurrency(),
+                account.getOpenedAt(),
+                account.getStatus(),
+                account.getVersion());
+    }
+}
@@ -0,0 +1,22 @@
+package com.banking.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Row of the account lists, selected column by column instead of loading
+// managed Account entities
+public record AccountSummary(
+        String accountNumber,
+        Long userId,
+        String accountType,
+        BigDecimal balance,
+        String currency,
+        String status,
+        LocalDateTime openedAt,
+        int balanceSlots) {
+
+    public AccountSummary withBalance(BigDecimal newBalance) {
+        return new AccountSummary(accountNumber, userId, accountType, newBalance,
+                currency, status, openedAt, balanceSlots);
+    }
+}
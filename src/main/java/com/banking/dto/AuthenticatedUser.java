@@ -0,0 +1,7 @@
+package com.banking.dto;
+
+// Caller identity taken from a verified session token, stored as a request attribute
+public record AuthenticatedUser(Long userId, String role, long expiresAt) {
+
+    public static final String ATTRIBUTE = AuthenticatedUser.class.getName();
+}
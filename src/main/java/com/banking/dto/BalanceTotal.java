@@ -0,0 +1,7 @@
+package com.banking.dto;
+
+import java.math.BigDecimal;
+
+// Sum of balances for one currency and account type
+public record BalanceTotal(String currency, String accountType, BigDecimal total) {
+}
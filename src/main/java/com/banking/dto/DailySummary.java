@@ -0,0 +1,20 @@
+package com.banking.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One day of an account's transfer totals, summed across summary slots
+public record DailySummary(
+        LocalDate date,
+        BigDecimal moneyIn,
+        BigDecimal moneyOut,
+        BigDecimal net,
+        long inCount,
+        long outCount) {
+
+    // JPQL constructor expression: sum() of the count columns is a Long
+    public DailySummary(LocalDate date, BigDecimal moneyIn, BigDecimal moneyOut,
+                        Long inCount, Long outCount) {
+        this(date, moneyIn, moneyOut, moneyIn.subtract(moneyOut), inCount, outCount);
+    }
+}
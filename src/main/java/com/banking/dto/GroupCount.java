@@ -0,0 +1,5 @@
+package com.banking.dto;
+
+// Row of a "select x, count(*) ... group by x" aggregate
+public record GroupCount(String key, long count) {
+}
@@ -0,0 +1,12 @@
+package com.banking.dto;
+
+import java.util.List;
+
+import com.banking.model.Transaction;
+
+// One keyset page of transaction history; nextCursor is null on the last page
+public record TransactionPage(
+        List<Transaction> transactions,
+        String nextCursor,
+        boolean hasNext) {
+}
@@ -0,0 +1,16 @@
+package com.banking.dto;
+
+import java.time.LocalDateTime;
+
+// Row of the admin user lists: no password hash, no address columns
+public record UserSummary(
+        Long userId,
+        String username,
+        String firstName,
+        String lastName,
+        String email,
+        String phone,
+        String role,
+        String status,
+        LocalDateTime createdAt) {
+}
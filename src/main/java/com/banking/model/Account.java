@@ -36,6 +36,15 @@ public class Account {
 	@Column(nullable=false)
 	private String status="ACTIVE";
 	
+	// 0 = the whole balance is in this row; N > 0 = credits are spread over
+	// N account_balance_slots rows and the total is balance + their sum
+	@Column(nullable=false)
+	private int balanceSlots;
+	
+	@Version
+	@Column(nullable=false)
+	private Long version = 0L;
+	
 	@PrePersist
 	protected void onCreate() {
 		openedAt=LocalDateTime.now();
@@ -90,4 +99,16 @@ public class Account {
 	public void setStatus(String status) {
 		this.status = status;
 	}
+	public int getBalanceSlots() {
+		return balanceSlots;
+	}
+	public void setBalanceSlots(int balanceSlots) {
+		this.balanceSlots = balanceSlots;
+	}
+	public Long getVersion() {
+		return version;
+	}
+	public void setVersion(Long version) {
+		this.version = version;
+	}
 }
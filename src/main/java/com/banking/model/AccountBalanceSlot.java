@@ -0,0 +1,71 @@
+package com.banking.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+import jakarta.persistence.*;
+
+// One sub-balance of a sharded account (Account.balanceSlots > 0)
+@Entity
+@Table(name="account_balance_slots")
+@IdClass(AccountBalanceSlot.SlotId.class)
+public class AccountBalanceSlot {
+	
+	@Id
+	private String accountNumber;
+	
+	@Id
+	private Integer slotNo;
+	
+	@Column(nullable=false, precision=15, scale=2)
+	private BigDecimal balance = BigDecimal.ZERO;
+	
+	public AccountBalanceSlot() {}
+	
+	public AccountBalanceSlot(String accountNumber, Integer slotNo) {
+		this.accountNumber=accountNumber;
+		this.slotNo=slotNo;
+	}
+
+	public String getAccountNumber() {
+		return accountNumber;
+	}
+
+	public Integer getSlotNo() {
+		return slotNo;
+	}
+
+	public BigDecimal getBalance() {
+		return balance;
+	}
+
+	public void setBalance(BigDecimal balance) {
+		this.balance = balance;
+	}
+	
+	public static class SlotId implements Serializable {
+		
+		private String accountNumber;
+		private Integer slotNo;
+		
+		public SlotId() {}
+		
+		public SlotId(String accountNumber, Integer slotNo) {
+			this.accountNumber=accountNumber;
+			this.slotNo=slotNo;
+		}
+		
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof SlotId other
+					&& Objects.equals(accountNumber, other.accountNumber)
+					&& Objects.equals(slotNo, other.slotNo);
+		}
+		
+		@Override
+		public int hashCode() {
+			return Objects.hash(accountNumber, slotNo);
+		}
+	}
+}
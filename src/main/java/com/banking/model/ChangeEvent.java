@@ -0,0 +1,61 @@
+package com.banking.model;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import jakarta.persistence.*;
+
+// One entry of the change feed. Rows are only ever inserted and stamped by
+// ChangeFeedService (eventId is assigned by the database) and read here.
+@Entity
+@Table(name="change_events")
+public class ChangeEvent {
+	
+	@Id
+	private Long eventId;
+	
+	// position in the feed, stamped after commit; null until then
+	private Long sequenceNo;
+	
+	// TRANSACTION_CREATED, ACCOUNT_STATUS_CHANGED
+	@Column(nullable=false, length=40)
+	private String eventType;
+	
+	// account number the change belongs to
+	@Column(nullable=false)
+	private String aggregateId;
+	
+	@JsonRawValue
+	@Column(nullable=false, length=2000)
+	private String payload;
+	
+	@Column(nullable=false)
+	private LocalDateTime createdAt;
+	
+	public ChangeEvent() {}
+
+	public Long getEventId() {
+		return eventId;
+	}
+
+	public Long getSequenceNo() {
+		return sequenceNo;
+	}
+
+	public String getEventType() {
+		return eventType;
+	}
+
+	public String getAggregateId() {
+		return aggregateId;
+	}
+
+	public String getPayload() {
+		return payload;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+}
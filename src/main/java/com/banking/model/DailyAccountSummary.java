@@ -0,0 +1,90 @@
+package com.banking.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import jakarta.persistence.*;
+
+// Per account, per day transfer totals, maintained in the same transaction
+// as each transfer. Sharded accounts spread their rows over slots like
+// their balance; readers sum across slotNo.
+@Entity
+@Table(name="daily_account_summary")
+@IdClass(DailyAccountSummary.SummaryId.class)
+public class DailyAccountSummary {
+	
+	@Id
+	private String accountNumber;
+	
+	@Id
+	private LocalDate summaryDate;
+	
+	@Id
+	private Integer slotNo;
+	
+	@Column(nullable=false, precision=19, scale=2)
+	private BigDecimal moneyIn = BigDecimal.ZERO;
+	
+	@Column(nullable=false, precision=19, scale=2)
+	private BigDecimal moneyOut = BigDecimal.ZERO;
+	
+	@Column(nullable=false)
+	private long inCount;
+	
+	@Column(nullable=false)
+	private long outCount;
+	
+	public DailyAccountSummary() {}
+
+	public String getAccountNumber() {
+		return accountNumber;
+	}
+
+	public LocalDate getSummaryDate() {
+		return summaryDate;
+	}
+
+	public Integer getSlotNo() {
+		return slotNo;
+	}
+
+	public BigDecimal getMoneyIn() {
+		return moneyIn;
+	}
+
+	public BigDecimal getMoneyOut() {
+		return moneyOut;
+	}
+
+	public long getInCount() {
+		return inCount;
+	}
+
+	public long getOutCount() {
+		return outCount;
+	}
+	
+	public static class SummaryId implements Serializable {
+		
+		private String accountNumber;
+		private LocalDate summaryDate;
+		private Integer slotNo;
+		
+		public SummaryId() {}
+		
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof SummaryId other
+					&& Objects.equals(accountNumber, other.accountNumber)
+					&& Objects.equals(summaryDate, other.summaryDate)
+					&& Objects.equals(slotNo, other.slotNo);
+		}
+		
+		@Override
+		public int hashCode() {
+			return Objects.hash(accountNumber, summaryDate, slotNo);
+		}
+	}
+}
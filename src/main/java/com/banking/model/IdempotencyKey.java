@@ -0,0 +1,85 @@
+package com.banking.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import jakarta.persistence.*;
+
+// Recorded response of a request made with an Idempotency-Key header.
+// Keys are scoped to the user that sent them.
+@Entity
+@Table(name="idempotency_keys")
+@IdClass(IdempotencyKey.KeyId.class)
+public class IdempotencyKey {
+	
+	@Id
+	private Long userId;
+	
+	@Id
+	private String idempotencyKey;
+	
+	// The request the key was first used for; a retry must match it
+	@Column(nullable=false, length=600)
+	private String requestFingerprint;
+	
+	@Column(nullable=false, length=2000)
+	private String responseBody;
+	
+	@Column(nullable=false)
+	private LocalDateTime createdAt;
+	
+	@Column(nullable=false)
+	private LocalDateTime expiresAt;
+	
+	public IdempotencyKey() {}
+
+	public Long getUserId() {
+		return userId;
+	}
+
+	public String getIdempotencyKey() {
+		return idempotencyKey;
+	}
+
+	public String getRequestFingerprint() {
+		return requestFingerprint;
+	}
+
+	public String getResponseBody() {
+		return responseBody;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	public LocalDateTime getExpiresAt() {
+		return expiresAt;
+	}
+	
+	public static class KeyId implements Serializable {
+		
+		private Long userId;
+		private String idempotencyKey;
+		
+		public KeyId() {}
+		
+		public KeyId(Long userId, String idempotencyKey) {
+			this.userId = userId;
+			this.idempotencyKey = idempotencyKey;
+		}
+		
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof KeyId other
+					&& Objects.equals(userId, other.userId)
+					&& Objects.equals(idempotencyKey, other.idempotencyKey);
+		}
+		
+		@Override
+		public int hashCode() {
+			return Objects.hash(userId, idempotencyKey);
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package com.banking.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+// Audit row for one fold of pending ledger entries into Account.balance
+@Entity
+@Table(name="ledger_checkpoints")
+public class LedgerCheckpoint {
+	
+	@Id
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "ledger_checkpoints_id")
+	@TableGenerator(name = "ledger_checkpoints_id", table = "id_generators",
+			pkColumnName = "sequence_name", valueColumnName = "next_val",
+			pkColumnValue = "ledger_checkpoints", allocationSize = 50)
+	private Long checkpointId;
+	
+	@Column(nullable=false)
+	private String accountNumber;
+	
+	@Column(nullable=false)
+	private int entryCount;
+	
+	@Column(nullable=false, precision=15, scale=2)
+	private BigDecimal foldedAmount = BigDecimal.ZERO;
+	
+	@Column(nullable=false, updatable=false)
+	private LocalDateTime createdAt;
+	
+	@PrePersist
+	protected void onCreate() {
+		createdAt=LocalDateTime.now();
+	}
+	
+	public LedgerCheckpoint() {}
+	
+	public LedgerCheckpoint(String accountNumber) {
+		this.accountNumber=accountNumber;
+	}
+
+	public Long getCheckpointId() {
+		return checkpointId;
+	}
+
+	public String getAccountNumber() {
+		return accountNumber;
+	}
+
+	public int getEntryCount() {
+		return entryCount;
+	}
+
+	public void setEntryCount(int entryCount) {
+		this.entryCount = entryCount;
+	}
+
+	public BigDecimal getFoldedAmount() {
+		return foldedAmount;
+	}
+
+	public void setFoldedAmount(BigDecimal foldedAmount) {
+		this.foldedAmount = foldedAmount;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+}
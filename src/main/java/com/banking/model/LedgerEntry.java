@@ -0,0 +1,82 @@
+package com.banking.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+// One side of a journal posting. Entries are append-only: the only column
+// ever written after insert is checkpointId, set once when the entry is
+// folded into Account.balance.
+@Entity
+@Table(name="ledger_entries")
+public class LedgerEntry {
+	
+	@Id
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "ledger_entries_id")
+	@TableGenerator(name = "ledger_entries_id", table = "id_generators",
+			pkColumnName = "sequence_name", valueColumnName = "next_val",
+			pkColumnValue = "ledger_entries", allocationSize = 50)
+	private Long entryId;
+	
+	// shared by the entries of one posting
+	@Column(nullable=false, updatable=false, length=36)
+	private String journalId;
+	
+	@Column(nullable=false, updatable=false)
+	private String accountNumber;
+	
+	@Column(nullable=false, updatable=false)
+	private String entryType;
+	
+	// signed: debits are negative, credits positive
+	@Column(nullable=false, updatable=false, precision=15, scale=2)
+	private BigDecimal amount;
+	
+	@Column(nullable=false, updatable=false)
+	private LocalDateTime createdAt;
+	
+	private Long checkpointId;
+	
+	@PrePersist
+	protected void onCreate() {
+		createdAt=LocalDateTime.now();
+	}
+	
+	public LedgerEntry() {}
+	
+	public LedgerEntry(String journalId, String accountNumber, String entryType, BigDecimal amount) {
+		this.journalId=journalId;
+		this.accountNumber=accountNumber;
+		this.entryType=entryType;
+		this.amount=amount;
+	}
+
+	public Long getEntryId() {
+		return entryId;
+	}
+
+	public String getJournalId() {
+		return journalId;
+	}
+
+	public String getAccountNumber() {
+		return accountNumber;
+	}
+
+	public String getEntryType() {
+		return entryType;
+	}
+
+	public BigDecimal getAmount() {
+		return amount;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	public Long getCheckpointId() {
+		return checkpointId;
+	}
+}
@@ -0,0 +1,47 @@
+package com.banking.repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.banking.dto.BalanceTotal;
+import com.banking.model.AccountBalanceSlot;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface AccountBalanceSlotRepository
+		extends JpaRepository<AccountBalanceSlot, AccountBalanceSlot.SlotId> {
+	
+	// Debits and re-sharding lock every slot, always in slot order
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select s from AccountBalanceSlot s where s.accountNumber = :accountNumber order by s.slotNo")
+	List<AccountBalanceSlot> findAllForUpdate(@Param("accountNumber") String accountNumber);
+	
+	// A credit only locks the one slot it lands on
+	@Modifying
+	@Query("update AccountBalanceSlot s set s.balance = s.balance + :amount " +
+			"where s.accountNumber = :accountNumber and s.slotNo = :slotNo")
+	int credit(@Param("accountNumber") String accountNumber,
+			@Param("slotNo") int slotNo,
+			@Param("amount") BigDecimal amount);
+	
+	@Query("select coalesce(sum(s.balance), 0) from AccountBalanceSlot s where s.accountNumber = :accountNumber")
+	BigDecimal sumByAccountNumber(@Param("accountNumber") String accountNumber);
+	
+	@Query("select new com.banking.dto.BalanceTotal(a.currency, a.accountType, sum(s.balance)) " +
+			"from AccountBalanceSlot s join Account a on a.accountNumber = s.accountNumber " +
+			"group by a.currency, a.accountType")
+	List<BalanceTotal> sumBalanceByCurrencyAndType();
+	
+	@Query("select s.accountNumber, sum(s.balance) from AccountBalanceSlot s " +
+			"where s.accountNumber in :accountNumbers group by s.accountNumber")
+	List<Object[]> sumByAccountNumbers(@Param("accountNumbers") Collection<String> accountNumbers);
+}
@@ -1,18 +1,93 @@
 package com.banking.repository;
 
+import com.banking.dto.AccountSummary;
+import com.banking.dto.BalanceTotal;
+import com.banking.dto.GroupCount;
 import com.banking.model.Account;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface AccountRepository extends JpaRepository<Account, String>{
 	List<Account> findByUserId(Long userId);
 	Optional<Account> findByAccountNumber(String accountNumber);
-	List<Account> findByStatus(String status);
-	List<Account> findByAccountType(String accountType);
 	boolean existsByAccountNumber(String accountNumber);
+	
+	// List screens: only the columns they show, no managed entities
+	@Query("select new com.banking.dto.AccountSummary(a.accountNumber, a.userId, a.accountType, " +
+			"a.balance, a.currency, a.status, a.openedAt, a.balanceSlots) from Account a " +
+			"order by a.accountNumber")
+	List<AccountSummary> findAllSummaries();
+	
+	@Query("select new com.banking.dto.AccountSummary(a.accountNumber, a.userId, a.accountType, " +
+			"a.balance, a.currency, a.status, a.openedAt, a.balanceSlots) from Account a " +
+			"where a.userId = :userId order by a.accountNumber")
+	List<AccountSummary> findSummariesByUserId(@Param("userId") Long userId);
+	
+	@Query("select new com.banking.dto.AccountSummary(a.accountNumber, a.userId, a.accountType, " +
+			"a.balance, a.currency, a.status, a.openedAt, a.balanceSlots) from Account a " +
+			"where a.status = :status order by a.accountNumber")
+	List<AccountSummary> findSummariesByStatus(@Param("status") String status);
+	
+	@Query("select new com.banking.dto.AccountSummary(a.accountNumber, a.userId, a.accountType, " +
+			"a.balance, a.currency, a.status, a.openedAt, a.balanceSlots) from Account a " +
+			"where a.accountType = :accountType order by a.accountNumber")
+	List<AccountSummary> findSummariesByAccountType(@Param("accountType") String accountType);
+	
+	// Dashboard aggregates
+	@Query("select new com.banking.dto.GroupCount(a.status, count(a)) from Account a group by a.status")
+	List<GroupCount> countByStatus();
+	
+	@Query("select new com.banking.dto.GroupCount(a.accountType, count(a)) from Account a group by a.accountType")
+	List<GroupCount> countByAccountType();
+	
+	@Query("select new com.banking.dto.BalanceTotal(a.currency, a.accountType, sum(a.balance)) " +
+			"from Account a group by a.currency, a.accountType")
+	List<BalanceTotal> sumBalanceByCurrencyAndType();
+	
+	// SELECT ... FOR UPDATE, used by the transfer engine in account number order
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select a from Account a where a.accountNumber = :accountNumber")
+	Optional<Account> findForUpdate(@Param("accountNumber") String accountNumber);
+	
+	// SELECT ... FOR SHARE: credits to a sharded account hold this so they
+	// never wait on each other, only on a debit, close or re-shard
+	@Lock(LockModeType.PESSIMISTIC_READ)
+	@Query("select a from Account a where a.accountNumber = :accountNumber")
+	Optional<Account> findForShare(@Param("accountNumber") String accountNumber);
+	
+	// Read from the row, not from an entity in the persistence context: the
+	// set-based legs below do not refresh entities loaded earlier
+	@Query("select a.balance from Account a where a.accountNumber = :accountNumber")
+	Optional<BigDecimal> findBalance(@Param("accountNumber") String accountNumber);
+	
+	@Query("select a.balanceSlots from Account a where a.accountNumber = :accountNumber")
+	Optional<Integer> findBalanceSlots(@Param("accountNumber") String accountNumber);
+	
+	// Set-based transfer legs: the row count tells whether the guard held.
+	// A null ownerUserId skips the ownership check (internal callers).
+	@Modifying
+	@Query("update Account a set a.balance = a.balance - :amount, a.version = a.version + 1 " +
+			"where a.accountNumber = :accountNumber and a.status = 'ACTIVE' " +
+			"and a.balance >= :amount and (:ownerUserId is null or a.userId = :ownerUserId)")
+	int debitIfActiveAndFunded(@Param("accountNumber") String accountNumber,
+			@Param("amount") BigDecimal amount,
+			@Param("ownerUserId") Long ownerUserId);
+	
+	@Modifying
+	@Query("update Account a set a.balance = a.balance + :amount, a.version = a.version + 1 " +
+			"where a.accountNumber = :accountNumber and a.status = 'ACTIVE'")
+	int creditIfActive(@Param("accountNumber") String accountNumber,
+			@Param("amount") BigDecimal amount);
 }
@@ -0,0 +1,28 @@
+package com.banking.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.banking.model.ChangeEvent;
+
+@Repository
+public interface ChangeEventRepository extends JpaRepository<ChangeEvent, Long> {
+	
+	List<ChangeEvent> findBySequenceNoGreaterThanOrderBySequenceNoAsc(Long sequenceNo, Limit limit);
+	
+	List<ChangeEvent> findBySequenceNoBetweenOrderBySequenceNoAsc(Long fromSequenceNo, Long toSequenceNo);
+	
+	@Query("select min(e.sequenceNo) from ChangeEvent e")
+	Long findOldestSequenceNo();
+	
+	@Modifying
+	@Query("delete from ChangeEvent e where e.createdAt < :cutoff")
+	int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
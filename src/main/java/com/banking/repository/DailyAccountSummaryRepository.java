@@ -0,0 +1,35 @@
+package com.banking.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.banking.dto.DailySummary;
+import com.banking.model.DailyAccountSummary;
+
+@Repository
+public interface DailyAccountSummaryRepository
+		extends JpaRepository<DailyAccountSummary, DailyAccountSummary.SummaryId> {
+	
+	// The account's most recent day: changes with every transfer that
+	// touches the account, in the same transaction
+	@Query("select new com.banking.dto.DailySummary(s.summaryDate, sum(s.moneyIn), sum(s.moneyOut), " +
+			"sum(s.inCount), sum(s.outCount)) from DailyAccountSummary s " +
+			"where s.accountNumber = :accountNumber and s.summaryDate = " +
+			"(select max(m.summaryDate) from DailyAccountSummary m where m.accountNumber = :accountNumber) " +
+			"group by s.summaryDate")
+	Optional<DailySummary> findLatestDay(@Param("accountNumber") String accountNumber);
+	
+	@Query("select new com.banking.dto.DailySummary(s.summaryDate, sum(s.moneyIn), sum(s.moneyOut), " +
+			"sum(s.inCount), sum(s.outCount)) from DailyAccountSummary s " +
+			"where s.accountNumber = :accountNumber and s.summaryDate between :fromDate and :toDate " +
+			"group by s.summaryDate order by s.summaryDate")
+	List<DailySummary> findDailyTotals(@Param("accountNumber") String accountNumber,
+			@Param("fromDate") LocalDate fromDate,
+			@Param("toDate") LocalDate toDate);
+}
@@ -0,0 +1,34 @@
+package com.banking.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.banking.model.IdempotencyKey;
+
+@Repository
+public interface IdempotencyKeyRepository
+		extends JpaRepository<IdempotencyKey, IdempotencyKey.KeyId> {
+	
+	// Executed immediately rather than at flush: a concurrent insert of the
+	// same key waits on this row until the transfer commits or rolls back
+	@Modifying
+	@Query(value = "INSERT INTO idempotency_keys " +
+			"(user_id, idempotency_key, request_fingerprint, response_body, created_at, expires_at) " +
+			"VALUES (:userId, :idempotencyKey, :fingerprint, :responseBody, :createdAt, :expiresAt)",
+			nativeQuery = true)
+	int insert(@Param("userId") Long userId,
+			@Param("idempotencyKey") String idempotencyKey,
+			@Param("fingerprint") String fingerprint,
+			@Param("responseBody") String responseBody,
+			@Param("createdAt") LocalDateTime createdAt,
+			@Param("expiresAt") LocalDateTime expiresAt);
+	
+	@Modifying
+	@Query("delete from IdempotencyKey k where k.expiresAt < :now")
+	int deleteExpired(@Param("now") LocalDateTime now);
+}
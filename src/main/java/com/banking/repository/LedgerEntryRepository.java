@@ -0,0 +1,55 @@
+package com.banking.repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.banking.dto.BalanceTotal;
+import com.banking.model.LedgerEntry;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+	
+	boolean existsByAccountNumberAndCheckpointIdIsNull(String accountNumber);
+	
+	// delta not yet folded into the account's balance snapshot
+	@Query("select coalesce(sum(e.amount), 0) from LedgerEntry e " +
+			"where e.accountNumber = :accountNumber and e.checkpointId is null")
+	BigDecimal sumPending(@Param("accountNumber") String accountNumber);
+	
+	@Query("select e.accountNumber, sum(e.amount) from LedgerEntry e " +
+			"where e.accountNumber in :accountNumbers and e.checkpointId is null " +
+			"group by e.accountNumber")
+	List<Object[]> sumPendingByAccount(@Param("accountNumbers") Collection<String> accountNumbers);
+	
+	// every account with pending entries, without an IN list
+	@Query("select e.accountNumber, sum(e.amount) from LedgerEntry e " +
+			"where e.checkpointId is null group by e.accountNumber")
+	List<Object[]> sumAllPendingByAccount();
+	
+	@Query("select new com.banking.dto.BalanceTotal(a.currency, a.accountType, sum(e.amount)) " +
+			"from LedgerEntry e join Account a on a.accountNumber = e.accountNumber " +
+			"where e.checkpointId is null group by a.currency, a.accountType")
+	List<BalanceTotal> sumPendingByCurrencyAndType();
+	
+	@Query("select distinct e.accountNumber from LedgerEntry e where e.checkpointId is null")
+	List<String> findAccountsWithPendingEntries(Limit limit);
+	
+	// Claims the pending entries for a checkpoint. Runs as a locking (current)
+	// read, so entries committed after it stay pending for the next checkpoint.
+	@Modifying
+	@Query("update LedgerEntry e set e.checkpointId = :checkpointId " +
+			"where e.accountNumber = :accountNumber and e.checkpointId is null")
+	int claimPending(@Param("accountNumber") String accountNumber,
+			@Param("checkpointId") Long checkpointId);
+	
+	@Query("select coalesce(sum(e.amount), 0) from LedgerEntry e where e.checkpointId = :checkpointId")
+	BigDecimal sumByCheckpoint(@Param("checkpointId") Long checkpointId);
+}
@@ -4,31 +4,64 @@ import com.banking.model.Transaction;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction,Long>{
 	List<Transaction> findByAccountNumber(String accountNumber);
 	List<Transaction> findByAccountNumberOrderByTransactionTimeDesc(String accountNumber);
-	List<Transaction> findByTransactionType(String transactionType);
-	List<Transaction> findByStatus(String status);
-	List<Transaction> findByAccountNumberAndTransactionTimeBetween(
+	
+	// Statement export: rows arrive from a server-side cursor in fetch-size
+	// chunks; the caller must consume the stream inside a transaction and
+	// close it
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+	})
+	Stream<Transaction> findByAccountNumberAndTransactionTimeBetween(
 			String accountNumber,
 			LocalDateTime startDate,
-			LocalDateTime endDate
-	);
-	List<Transaction> findByTransactionTimeBetween(
-			LocalDateTime startDate,
-			LocalDateTime endDate
+			LocalDateTime endDate,
+			Sort sort
 	);
 	
+	// Bulk export walks the primary key in fixed-width id ranges
+	List<Transaction> findByTransactionIdBetweenOrderByTransactionIdAsc(Long fromId, Long toId);
+	Optional<Transaction> findFirstByOrderByTransactionIdDesc();
+	List<Transaction> findAllByOrderByTransactionIdDesc(Limit limit);
+	
 	List<Transaction> 
 	findByAccountNumberAndTransactionTypeOrderByTransactionTimeDesc(
 	        String accountNumber,
 	        String transactionType
 	);
 
-	
+	// Keyset pages on (transactionTime, transactionId): no OFFSET, no COUNT
+	Window<Transaction>
+	findByAccountNumberOrderByTransactionTimeDescTransactionIdDesc(
+	        String accountNumber,
+	        ScrollPosition position,
+	        Limit limit
+	);
+
+	Window<Transaction>
+	findByAccountNumberAndTransactionTypeOrderByTransactionTimeDescTransactionIdDesc(
+	        String accountNumber,
+	        String transactionType,
+	        ScrollPosition position,
+	        Limit limit
+	);
 }
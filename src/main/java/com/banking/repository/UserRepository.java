@@ -4,8 +4,12 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.banking.dto.GroupCount;
+import com.banking.dto.UserSummary;
 import com.banking.model.User;
 
 @Repository
@@ -13,9 +17,24 @@ public interface UserRepository extends JpaRepository<User,Long> {
 	
 	Optional<User> findByUsername(String username);
 	Optional<User> findByEmail(String email);
-	List<User> findByRole(String role);
 	boolean existsByUsername(String username);
 	boolean existsByEmail(String email);
 	List<User> findByStatus(String status);
+	
+	// List screens: only the columns they show, no managed entities
+	@Query("select new com.banking.dto.UserSummary(u.userId, u.username, u.firstName, u.lastName, " +
+			"u.email, u.phone, u.role, u.status, u.createdAt) from User u order by u.userId")
+	List<UserSummary> findAllSummaries();
+	
+	@Query("select new com.banking.dto.UserSummary(u.userId, u.username, u.firstName, u.lastName, " +
+			"u.email, u.phone, u.role, u.status, u.createdAt) from User u " +
+			"where u.role = :role order by u.userId")
+	List<UserSummary> findSummariesByRole(@Param("role") String role);
+	
+	@Query("select new com.banking.dto.GroupCount(u.role, count(u)) from User u group by u.role")
+	List<GroupCount> countByRole();
+	
+	@Query("select new com.banking.dto.GroupCount(u.status, count(u)) from User u group by u.status")
+	List<GroupCount> countByStatus();
 
 }
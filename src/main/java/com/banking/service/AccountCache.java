@@ -0,0 +1,90 @@
+package com.banking.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.banking.dto.AccountSnapshot;
+import com.banking.model.Account;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import jakarta.annotation.PostConstruct;
+
+// Bounded cache of account snapshots keyed by account number. Writers update
+// or evict entries only after their transaction commits; an eviction waits
+// for any in-flight load of the same key, so a reader cannot re-insert a
+// value read before the commit.
+@Component
+public class AccountCache {
+
+    @Value("${banking.account-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${banking.account-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private Cache<String, AccountSnapshot> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public Optional<AccountSnapshot> get(String accountNumber,
+                                         Function<String, Optional<Account>> loader) {
+        // Unknown accounts are not cached: the loader returns null for them
+        return Optional.ofNullable(cache.get(accountNumber,
+                key -> loader.apply(key).map(AccountSnapshot::of).orElse(null)));
+    }
+
+    public void putAfterCommit(Account account) {
+        afterCommit(() -> cache.put(account.getAccountNumber(), AccountSnapshot.of(account)));
+    }
+
+    public void evictAfterCommit(String... accountNumbers) {
+        afterCommit(() -> {
+            for (String accountNumber : accountNumbers) {
+                cache.invalidate(accountNumber);
+            }
+        });
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("loadFailures", stats.loadFailureCount());
+        result.put("averageLoadMicros", (long) (stats.averageLoadPenalty() / 1_000));
+        return result;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,276 @@
+package com.banking.service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.banking.dto.AccountEvent;
+import com.banking.repository.AccountRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Fans committed transfers out to the Server-Sent Events streams of the two
+// accounts involved. Each subscriber has a bounded buffer that is drained
+// on its own (virtual) thread; a client that falls buffer-size events
+// behind is disconnected rather than slowing anyone else down; its
+// EventSource reconnects and starts again from the current balance.
+//
+// Events are queued on the committing thread right after commit, in the
+// order the transfers committed, with the balance the transfer read inside
+// its transaction. Every balance carries the time it was read while the
+// account was held, so a balance that reaches a subscriber after a newer
+// one (a committing thread descheduled between commit and queueing, or a
+// transfer racing the starting BALANCE) is sent without it.
+//
+// Streams are per node: a transfer is pushed by the node that ran it, to
+// the subscribers connected to that node.
+@Component
+public class AccountEventHub {
+
+    private static final Object HEARTBEAT = new Object();
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${banking.events.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${banking.events.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${banking.events.max-subscribers-per-account:5}")
+    private int maxSubscribersPerAccount;
+
+    @Value("${banking.events.timeout-minutes:30}")
+    private long timeoutMinutes;
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final LongAdder evicted = new LongAdder();
+
+    private ExecutorService senders;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        senders = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("account-events-", 0).factory());
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Before the web server's graceful shutdown, which would otherwise wait
+    // for every open stream; clients reconnect to another node
+    @EventListener(ContextClosedEvent.class)
+    public void closeStreams() {
+        subscribers.values().forEach(set -> set.forEach(Subscriber::close));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        closeStreams();
+        senders.shutdownNow();
+    }
+
+    public SseEmitter subscribe(String accountNumber) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new RuntimeException("Too many open event streams, please retry later");
+        }
+
+        SseEmitter emitter = new SseEmitter(TimeUnit.MINUTES.toMillis(timeoutMinutes));
+        Subscriber subscriber = new Subscriber(accountNumber, emitter);
+        try {
+            // compute() so that a concurrent last unsubscribe cannot drop the set
+            subscribers.compute(accountNumber, (n, set) -> {
+                Set<Subscriber> forAccount = set != null ? set : ConcurrentHashMap.newKeySet();
+                if (forAccount.size() >= maxSubscribersPerAccount) {
+                    throw new RuntimeException("Too many open event streams for this account");
+                }
+                forAccount.add(subscriber);
+                return forAccount;
+            });
+        } catch (RuntimeException e) {
+            subscriberCount.decrementAndGet();
+            throw e;
+        }
+        emitter.onCompletion(subscriber::remove);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        // Starting state, so the client needs no separate balance read. Read
+        // under a shared row lock, after subscribing: transfers holding the
+        // account commit first and their balances are older, later ones
+        // wait and theirs are newer.
+        transactionTemplate.executeWithoutResult(status -> {
+            if (accountRepository.findForShare(accountNumber).isEmpty()) {
+                return;
+            }
+            long readAt = System.nanoTime();
+            accountService.getAccountByNumber(accountNumber)
+                    .ifPresent(account -> subscriber.offer(new AccountEvent(accountNumber, "BALANCE",
+                            null, null, null, account.getBalance(), LocalDateTime.now()), readAt));
+        });
+        return emitter;
+    }
+
+    // Runs on the committing thread right after commit. offer() never
+    // blocks, the sends happen on the subscribers' own threads.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTransfer(TransferCompletedEvent event) {
+        publish(event.fromAccount(), new AccountEvent(event.fromAccount(), "TRANSFER_OUT",
+                event.amount(), event.toAccount(), event.debitTransactionId(),
+                event.fromBalance(), event.completedAt()), event.balancesReadAt());
+        publish(event.toAccount(), new AccountEvent(event.toAccount(), "TRANSFER_IN",
+                event.amount(), event.fromAccount(), event.creditTransactionId(),
+                event.toBalance(), event.completedAt()), event.balancesReadAt());
+    }
+
+    // Also asked by the transfer engine before it reads balances for events
+    public boolean isWatched(String accountNumber) {
+        Set<Subscriber> set = subscribers.get(accountNumber);
+        return set != null && !set.isEmpty();
+    }
+
+    // Comment lines keep idle connections open through proxies and reveal
+    // clients that went away without closing
+    @Scheduled(fixedDelayString = "${banking.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(s -> s.offer(HEARTBEAT, 0)));
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of(
+                "subscribers", subscriberCount.get(),
+                "accounts", subscribers.size(),
+                "evicted", evicted.sum());
+    }
+
+    private void publish(String accountNumber, AccountEvent event, long balanceReadAt) {
+        Set<Subscriber> set = subscribers.get(accountNumber);
+        if (set != null) {
+            set.forEach(s -> s.offer(event, balanceReadAt));
+        }
+    }
+
+    private final class Subscriber {
+
+        private final String accountNumber;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Object> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean removed = new AtomicBoolean();
+        // read time of the newest balance queued so far
+        private boolean hasBalance;
+        private long balanceReadAt;
+
+        Subscriber(String accountNumber, SseEmitter emitter) {
+            this.accountNumber = accountNumber;
+            this.emitter = emitter;
+        }
+
+        // synchronized: the staleness check and the enqueue must not
+        // interleave between committing threads (it never blocks)
+        synchronized void offer(Object item, long readAt) {
+            if (removed.get()) {
+                return;
+            }
+            if (item instanceof AccountEvent event && event.balance() != null) {
+                if (hasBalance && readAt - balanceReadAt < 0) {
+                    item = event.withoutBalance();
+                } else {
+                    hasBalance = true;
+                    balanceReadAt = readAt;
+                }
+            }
+            if (!buffer.offer(item)) {
+                // slow consumer
+                evicted.increment();
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Object item;
+                while ((item = buffer.poll()) != null && !removed.get()) {
+                    send(item);
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                draining.set(false);
+            }
+            if (!buffer.isEmpty() && !removed.get() && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void send(Object item) throws IOException {
+            if (item == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+                return;
+            }
+            AccountEvent event = (AccountEvent) item;
+            SseEmitter.SseEventBuilder builder = SseEmitter.event()
+                    .name(event.type())
+                    .data(event, MediaType.APPLICATION_JSON);
+            if (event.transactionId() != null) {
+                builder.id(String.valueOf(event.transactionId()));
+            }
+            emitter.send(builder);
+        }
+
+        void close() {
+            if (remove()) {
+                emitter.complete();
+            }
+        }
+
+        boolean remove() {
+            if (!removed.compareAndSet(false, true)) {
+                return false;
+            }
+            subscriberCount.decrementAndGet();
+            subscribers.computeIfPresent(accountNumber, (n, set) -> {
+                set.remove(this);
+                return set.isEmpty() ? null : set;
+            });
+            buffer.clear();
+            return true;
+        }
+    }
+}
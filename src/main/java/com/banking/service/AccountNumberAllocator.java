@@ -0,0 +1,140 @@
+package com.banking.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+
+// Hands out account numbers from ranges leased off the "account_numbers"
+// counter in id_generators. Numbers within a lease come from an AtomicLong,
+// so the database is only touched once per block-size accounts.
+//
+// Format: "ACC" + 10 digit serial + Luhn check digit. Numbers issued before
+// the allocator existed are "ACC" + 10 random digits and carry no check digit.
+@Component
+public class AccountNumberAllocator {
+
+    private static final String PREFIX = "ACC";
+    private static final String COUNTER = "account_numbers";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${banking.account-number.block-size:100}")
+    private int blockSize;
+
+    private final AtomicReference<Lease> lease = new AtomicReference<>(Lease.EMPTY);
+    private final ReentrantLock renewLock = new ReentrantLock();
+
+    private TransactionTemplate leaseTransaction;
+
+    @PostConstruct
+    void init() {
+        leaseTransaction = new TransactionTemplate(transactionManager);
+        leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public String next() {
+        while (true) {
+            Lease current = lease.get();
+            long serial = current.next.getAndIncrement();
+            if (serial < current.end) {
+                return format(serial);
+            }
+            renew(current);
+        }
+    }
+
+    // Only the thread that finds the lease exhausted goes to the database.
+    // A ReentrantLock rather than synchronized: blocking on JDBC inside a
+    // monitor would pin the carrier thread of a virtual thread on Java 21.
+    private void renew(Lease exhausted) {
+        renewLock.lock();
+        try {
+            if (lease.get() == exhausted) {
+                lease.set(leaseBlock());
+            }
+        } finally {
+            renewLock.unlock();
+        }
+    }
+
+    private Lease leaseBlock() {
+        Long end = leaseTransaction.execute(status -> {
+            int updated = jdbcTemplate.update(
+                    "UPDATE id_generators SET next_val = next_val + ? WHERE sequence_name = ?",
+                    blockSize, COUNTER);
+            if (updated != 1) {
+                throw new RuntimeException("Account number counter is missing");
+            }
+            return jdbcTemplate.queryForObject(
+                    "SELECT next_val FROM id_generators WHERE sequence_name = ?",
+                    Long.class, COUNTER);
+        });
+        return new Lease(end - blockSize, end);
+    }
+
+    static String format(long serial) {
+        String digits = String.format("%010d", serial);
+        return PREFIX + digits + checkDigit(digits);
+    }
+
+    // Rejects typos without a database lookup. Legacy 10 digit numbers have
+    // no check digit and are only checked for shape.
+    public static boolean isWellFormed(String accountNumber) {
+        if (accountNumber == null || !accountNumber.startsWith(PREFIX)) {
+            return false;
+        }
+        String digits = accountNumber.substring(PREFIX.length());
+        if (!digits.chars().allMatch(c -> c >= '0' && c <= '9')) {
+            return false;
+        }
+        if (digits.length() == 10) {
+            return true;
+        }
+        return digits.length() == 11
+                && checkDigit(digits.substring(0, 10)) == digits.charAt(10);
+    }
+
+    // Luhn mod 10 over the serial digits
+    private static char checkDigit(String digits) {
+        int sum = 0;
+        boolean doubleIt = true;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int d = digits.charAt(i) - '0';
+            if (doubleIt) {
+                d *= 2;
+                if (d > 9) {
+                    d -= 9;
+                }
+            }
+            sum += d;
+            doubleIt = !doubleIt;
+        }
+        return (char) ('0' + (10 - sum % 10) % 10);
+    }
+
+    private static final class Lease {
+        static final Lease EMPTY = new Lease(0, 0);
+
+        final AtomicLong next;
+        final long end;
+
+        Lease(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package com.banking.service;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.banking.dto.AccountSnapshot;
+import com.banking.dto.AccountSummary;
 import com.banking.model.Account;
 import com.banking.repository.AccountRepository;
 import com.banking.repository.UserRepository;
@@ -23,18 +28,24 @@ public class AccountService {
     @Autowired
     private UserRepository userRepository;
 
-    // Generate unique account number
-    private String generateAccountNumber() {
-        Random random = new Random();
-        String accountNumber;
+    @Autowired
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @Autowired
+    private AccountCache accountCache;
 
-        do {
-            accountNumber = "ACC" +
-                    String.format("%010d",
-                    Math.abs(random.nextLong() % 10000000000L));
-        } while (accountRepository.existsByAccountNumber(accountNumber));
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private ShardedBalances shardedBalances;
 
-        return accountNumber;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Generate unique account number from the leased range, no DB lookup
+    private String generateAccountNumber() {
+        return accountNumberAllocator.next();
     }
 
     // CREATE ACCOUNT WITH BUSINESS RULES
@@ -81,6 +92,9 @@ public class AccountService {
                     "Initial Balance cannot be negative");
         }
 
+        // Sharding is switched on separately, once the slot rows exist
+        account.setBalanceSlots(0);
+
         // 7️⃣ Default status
         if(account.getStatus() == null || account.getStatus().isEmpty()){
             account.setStatus("ACTIVE");
@@ -91,29 +105,54 @@ public class AccountService {
             account.setCurrency("INR");
         }
 
-        return accountRepository.save(account);
+        Account saved = accountRepository.save(account);
+        refreshCache(saved);
+        return saved;
     }
 
     // ===============================
 
-    public List<Account> getAllAccounts(){
-        return accountRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<AccountSummary> getAllAccounts(){
+        // every account, so no IN list of account numbers
+        return withDeltas(accountRepository.findAllSummaries(), ledgerService.pendingDeltas());
     }
 
     public Optional<Account> getAccountByNumber(String accountNumber){
-        return accountRepository.findByAccountNumber(accountNumber);
+        if(!AccountNumberAllocator.isWellFormed(accountNumber)){
+            return Optional.empty();
+        }
+        return currentBalance(accountRepository.findByAccountNumber(accountNumber));
+    }
+
+    // Cached read for ownership checks and account polling; a hit never
+    // opens a transaction or touches the database
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<AccountSnapshot> getAccountSnapshot(String accountNumber){
+        if(!AccountNumberAllocator.isWellFormed(accountNumber)){
+            return Optional.empty();
+        }
+        return accountCache.get(accountNumber, number ->
+                currentBalance(accountRepository.findByAccountNumber(number)));
     }
 
-    public List<Account> getAccountsByUserId(Long userId){
-        return accountRepository.findByUserId(userId);
+    public Map<String, Object> getCacheStats(){
+        return accountCache.stats();
     }
 
-    public List<Account> getAccountsByStatus(String status){
-        return accountRepository.findByStatus(status);
+    @Transactional(readOnly = true)
+    public List<AccountSummary> getAccountsByUserId(Long userId){
+        return currentSummaryBalances(accountRepository.findSummariesByUserId(userId));
     }
 
-    public List<Account> getAccountsByType(String accountType){
-        return accountRepository.findByAccountType(accountType);
+    @Transactional(readOnly = true)
+    public List<AccountSummary> getAccountsByStatus(String status){
+        return currentSummaryBalances(accountRepository.findSummariesByStatus(status));
+    }
+
+    @Transactional(readOnly = true)
+    public List<AccountSummary> getAccountsByType(String accountType){
+        return currentSummaryBalances(accountRepository.findSummariesByAccountType(accountType));
     }
 
     public Account updateAccountStatus(String accountNumber, String status) {
@@ -122,42 +161,98 @@ public class AccountService {
                         new RuntimeException(
                         "Account not found with number: " + accountNumber));
 
+        String previousStatus = account.getStatus();
         account.setStatus(status);
-        return accountRepository.save(account);
+        Account saved = accountRepository.save(account);
+        statusChanged(saved, previousStatus);
+        refreshCache(saved);
+        return saved;
     }
 
     public Account updateBalance(String accountNumber,
                                  BigDecimal newBalance) {
 
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() ->
-                        new RuntimeException(
-                        "Account not found with number: " + accountNumber));
-
         if(newBalance.compareTo(BigDecimal.ZERO) < 0){
             throw new RuntimeException(
                     "Balance cannot be negative");
         }
 
+        if(ledgerService.isActive()){
+            return adjustThroughLedger(accountNumber, newBalance);
+        }
+
+        // Locked like a debit: collapse rewrites the base row and the slots,
+        // and concurrent credits hold the row shared while they touch a slot
+        Account account = accountRepository.findForUpdate(accountNumber)
+                .orElseThrow(() ->
+                        new RuntimeException(
+                        "Account not found with number: " + accountNumber));
+
+        // a sharded account's slots are emptied into the base first
+        shardedBalances.collapse(account);
         account.setBalance(newBalance);
-        return accountRepository.save(account);
+        Account saved = accountRepository.save(account);
+        refreshCache(saved);
+        return saved;
+    }
+
+    // In LEDGER mode the snapshot is not rewritten: the difference to the
+    // current balance is journaled as an ADJUSTMENT entry
+    private Account adjustThroughLedger(String accountNumber, BigDecimal newBalance) {
+        Account account = accountRepository.findForUpdate(accountNumber)
+                .orElseThrow(() ->
+                        new RuntimeException(
+                        "Account not found with number: " + accountNumber));
+
+        BigDecimal current = ledgerService.currentBalance(account)
+                .add(shardedBalances.slotTotal(account));
+        BigDecimal delta = newBalance.subtract(current);
+        if(delta.signum() != 0){
+            ledgerService.postAdjustment(accountNumber, delta);
+        }
+        accountCache.evictAfterCommit(accountNumber);
+        return currentBalances(List.of(account)).get(0);
     }
 
     public Account closeAccount(String accountNumber) {
 
-        Account account = accountRepository.findByAccountNumber(accountNumber)
+        // Fold pending ledger entries so the zero balance check sees them
+        ledgerService.checkpoint(accountNumber);
+
+        Account account = accountRepository.findForUpdate(accountNumber)
                 .orElseThrow(() ->
                         new RuntimeException(
                         "Account not found with number: " + accountNumber));
 
+        shardedBalances.collapse(account);
+
         if(account.getBalance().compareTo(BigDecimal.ZERO) != 0){
             throw new RuntimeException(
                     "Cannot close account with non zero balance. " +
                     "Current balance: " + account.getBalance());
         }
 
+        String previousStatus = account.getStatus();
         account.setStatus("CLOSED");
-        return accountRepository.save(account);
+        Account saved = accountRepository.save(account);
+        statusChanged(saved, previousStatus);
+        refreshCache(saved);
+        return saved;
+    }
+
+    // Splits the account's balance into N sub-balance slots so concurrent
+    // credits stop queueing on its row; 0 merges it back into one row
+    public Account updateBalanceSlots(String accountNumber, int slots) {
+
+        Account account = accountRepository.findForUpdate(accountNumber)
+                .orElseThrow(() ->
+                        new RuntimeException(
+                        "Account not found with number: " + accountNumber));
+
+        shardedBalances.reshard(account, slots);
+        Account saved = accountRepository.save(account);
+        refreshCache(saved);
+        return saved;
     }
 
     public void deleteAccount(String accountNumber) {
@@ -168,9 +263,61 @@ public class AccountService {
         }
 
         accountRepository.deleteById(accountNumber);
+        accountCache.evictAfterCommit(accountNumber);
     }
 
     public boolean accountExists(String accountNumber){
         return accountRepository.existsByAccountNumber(accountNumber);
     }
+
+    // Account.balance as reported to clients: the stored balance plus
+    // pending ledger entries and sub-balance slots
+    private List<Account> currentBalances(List<Account> accounts){
+        return shardedBalances.withSlotTotals(ledgerService.withCurrentBalances(accounts));
+    }
+
+    private List<AccountSummary> currentSummaryBalances(List<AccountSummary> accounts){
+        return withDeltas(accounts, ledgerService.pendingDeltas(
+                accounts.stream().map(AccountSummary::accountNumber).toList()));
+    }
+
+    private List<AccountSummary> withDeltas(List<AccountSummary> accounts,
+                                            Map<String, BigDecimal> pending){
+        Map<String, BigDecimal> slots = shardedBalances.slotTotals(accounts.stream()
+                .filter(a -> a.balanceSlots() > 0)
+                .map(AccountSummary::accountNumber)
+                .toList());
+        if(pending.isEmpty() && slots.isEmpty()){
+            return accounts;
+        }
+        return accounts.stream()
+                .map(a -> a.withBalance(a.balance()
+                        .add(pending.getOrDefault(a.accountNumber(), BigDecimal.ZERO))
+                        .add(slots.getOrDefault(a.accountNumber(), BigDecimal.ZERO))))
+                .toList();
+    }
+
+    private Optional<Account> currentBalance(Optional<Account> account){
+        account.ifPresent(a -> currentBalances(List.of(a)));
+        return account;
+    }
+
+    // Picked up by the change feed inside this transaction
+    private void statusChanged(Account saved, String previousStatus){
+        if(!saved.getStatus().equals(previousStatus)){
+            eventPublisher.publishEvent(new AccountStatusChangedEvent(
+                    saved.getAccountNumber(), saved.getUserId(),
+                    previousStatus, saved.getStatus(), LocalDateTime.now()));
+        }
+    }
+
+    // A saved entity only carries the stored balance; in LEDGER mode or for
+    // a sharded account the next read recomputes the total instead
+    private void refreshCache(Account saved){
+        if(ledgerService.isActive() || saved.getBalanceSlots() > 0){
+            accountCache.evictAfterCommit(saved.getAccountNumber());
+        } else {
+            accountCache.putAfterCommit(saved);
+        }
+    }
 }
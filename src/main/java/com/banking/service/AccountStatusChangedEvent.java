@@ -0,0 +1,13 @@
+package com.banking.service;
+
+import java.time.LocalDateTime;
+
+// Published by AccountService inside the transaction that changes an
+// account's status (updateAccountStatus, closeAccount)
+public record AccountStatusChangedEvent(
+        String accountNumber,
+        Long userId,
+        String previousStatus,
+        String status,
+        LocalDateTime changedAt) {
+}
@@ -0,0 +1,120 @@
+package com.banking.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banking.dto.BalanceTotal;
+import com.banking.dto.GroupCount;
+import com.banking.repository.AccountBalanceSlotRepository;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.LedgerEntryRepository;
+import com.banking.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+import jakarta.annotation.PostConstruct;
+
+// Dashboard figures from a few GROUP BY queries, cached as one value.
+// After refresh-seconds the next read triggers a background recompute and
+// keeps serving the current value meanwhile; concurrent viewers share both
+// the first load and every refresh. A value is never older than
+// max-stale-seconds.
+@Service
+public class AdminStatsService {
+
+    private static final String KEY = "stats";
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountBalanceSlotRepository slotRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${banking.admin-stats.refresh-seconds:30}")
+    private long refreshSeconds;
+
+    @Value("${banking.admin-stats.max-stale-seconds:300}")
+    private long maxStaleSeconds;
+
+    private LoadingCache<String, Map<String, Object>> cache;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        cache = Caffeine.newBuilder()
+                .refreshAfterWrite(Duration.ofSeconds(refreshSeconds))
+                .expireAfterWrite(Duration.ofSeconds(Math.max(maxStaleSeconds, refreshSeconds)))
+                .build(key -> readOnlyTransaction.execute(status -> compute()));
+    }
+
+    public Map<String, Object> getStats() {
+        return cache.get(KEY);
+    }
+
+    private Map<String, Object> compute() {
+        Map<String, Object> accounts = new LinkedHashMap<>();
+        List<GroupCount> byStatus = accountRepository.countByStatus();
+        accounts.put("byStatus", toMap(byStatus));
+        accounts.put("byType", toMap(accountRepository.countByAccountType()));
+        accounts.put("total", sum(byStatus));
+
+        Map<String, Object> users = new LinkedHashMap<>();
+        List<GroupCount> byRole = userRepository.countByRole();
+        users.put("byRole", toMap(byRole));
+        users.put("byStatus", toMap(userRepository.countByStatus()));
+        users.put("total", sum(byRole));
+
+        // Balance = stored balance + sub-balance slots + pending ledger entries
+        Map<String, Map<String, BigDecimal>> balances = new TreeMap<>();
+        addBalances(balances, accountRepository.sumBalanceByCurrencyAndType());
+        addBalances(balances, slotRepository.sumBalanceByCurrencyAndType());
+        addBalances(balances, ledgerEntryRepository.sumPendingByCurrencyAndType());
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("accounts", accounts);
+        stats.put("users", users);
+        stats.put("balancesByCurrencyAndType", balances);
+        stats.put("computedAt", LocalDateTime.now());
+        return stats;
+    }
+
+    private static Map<String, Long> toMap(List<GroupCount> counts) {
+        Map<String, Long> result = new TreeMap<>();
+        counts.forEach(c -> result.put(c.key(), c.count()));
+        return result;
+    }
+
+    private static long sum(List<GroupCount> counts) {
+        return counts.stream().mapToLong(GroupCount::count).sum();
+    }
+
+    private static void addBalances(Map<String, Map<String, BigDecimal>> balances,
+                                    List<BalanceTotal> totals) {
+        for (BalanceTotal total : totals) {
+            balances.computeIfAbsent(total.currency(), c -> new TreeMap<>())
+                    .merge(total.accountType(), total.total(), BigDecimal::add);
+        }
+    }
+}
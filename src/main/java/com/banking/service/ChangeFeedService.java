@@ -0,0 +1,221 @@
+package com.banking.service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banking.model.ChangeEvent;
+import com.banking.repository.ChangeEventRepository;
+
+import jakarta.annotation.PostConstruct;
+import tools.jackson.databind.ObjectMapper;
+
+// Transactional outbox for downstream consumers. Every new transfer
+// transaction and every account status change adds a row to change_events
+// inside the transaction that makes the change, so the feed has exactly
+// the committed changes; consumers page through it with the last eventId
+// they have seen.
+//
+// The AUTO_INCREMENT event_id is taken at insert, not at commit: a
+// transaction that inserted event 10 can commit after the one that inserted
+// event 11, however long it stays open. Consumers therefore page on
+// sequence_no instead, which a relay stamps on rows only once they have
+// committed. Relay runs hold the 'change_events' counter row lock for the
+// whole stamping transaction, so they run one at a time across all nodes
+// and each commits before the next one reads the counter: sequence numbers
+// become visible strictly in order, and a cursor never passes an event that
+// may still appear.
+@Service
+@Transactional
+public class ChangeFeedService {
+
+    public static final String TRANSACTION_CREATED = "TRANSACTION_CREATED";
+    public static final String ACCOUNT_STATUS_CHANGED = "ACCOUNT_STATUS_CHANGED";
+
+    private static final String INSERT =
+            "INSERT INTO change_events (event_type, aggregate_id, payload, created_at) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private ChangeEventRepository changeEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static final String COUNTER = "change_events";
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${banking.changes.relay-batch-size:1000}")
+    private int relayBatchSize;
+
+    @Value("${banking.changes.max-page-size:1000}")
+    private int maxPageSize;
+
+    @Value("${banking.changes.retention-days:7}")
+    private long retentionDays;
+
+    private TransactionTemplate relayTransaction;
+
+    @PostConstruct
+    void init() {
+        relayTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    // Both history rows of the transfer, in one JDBC batch
+    @EventListener
+    public void onTransfer(TransferCompletedEvent event) {
+        List<Object[]> rows = List.of(
+                transactionRow(event.debitTransactionId(), event.fromAccount(), "TRANSFER_OUT",
+                        event.amount(), event.toAccount(), event.completedAt()),
+                transactionRow(event.creditTransactionId(), event.toAccount(), "TRANSFER_IN",
+                        event.amount(), event.fromAccount(), event.completedAt()));
+        jdbcTemplate.batchUpdate(INSERT, rows);
+    }
+
+    @EventListener
+    public void onAccountStatusChanged(AccountStatusChangedEvent event) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("accountNumber", event.accountNumber());
+        payload.put("userId", event.userId());
+        payload.put("previousStatus", event.previousStatus());
+        payload.put("status", event.status());
+        payload.put("changedAt", event.changedAt());
+        jdbcTemplate.update(INSERT, ACCOUNT_STATUS_CHANGED, event.accountNumber(),
+                objectMapper.writeValueAsString(payload), Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getChanges(long since, int limit) {
+        int size = Math.max(1, Math.min(limit, maxPageSize));
+
+        // one extra row tells whether more is waiting
+        List<ChangeEvent> rows = changeEventRepository
+                .findBySequenceNoGreaterThanOrderBySequenceNoAsc(since, Limit.of(size + 1));
+        List<ChangeEvent> events = rows.size() > size ? rows.subList(0, size) : rows;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("events", events);
+        result.put("nextCursor", events.isEmpty() ? since : events.get(events.size() - 1).getSequenceNo());
+        result.put("hasMore", rows.size() > size);
+        return result;
+    }
+
+    // Last sequence number published. Every event up to it has committed
+    // and is visible to reads started after this call.
+    @Transactional(readOnly = true)
+    public long publishedSequence() {
+        Long last = jdbcTemplate.queryForObject(
+                "SELECT next_val FROM id_generators WHERE sequence_name = ?", Long.class, COUNTER);
+        return last == null ? 0 : last;
+    }
+
+    // False once the retention purge has removed events after `sequence`
+    @Transactional(readOnly = true)
+    public boolean isRetainedAfter(long sequence) {
+        if (sequence >= publishedSequence()) {
+            return true;
+        }
+        Long oldest = changeEventRepository.findOldestSequenceNo();
+        return oldest != null && oldest <= sequence + 1;
+    }
+
+    // Ids of the transactions created by the events in
+    // [fromSequence, toSequence], in feed order
+    @Transactional(readOnly = true)
+    public List<Long> transactionIdsBetween(long fromSequence, long toSequence) {
+        List<Long> ids = new ArrayList<>();
+        for (ChangeEvent event : changeEventRepository
+                .findBySequenceNoBetweenOrderBySequenceNoAsc(fromSequence, toSequence)) {
+            if (TRANSACTION_CREATED.equals(event.getEventType())) {
+                ids.add(objectMapper.readTree(event.getPayload()).get("transactionId").asLong());
+            }
+        }
+        return ids;
+    }
+
+    // ===============================
+    // Relay
+
+    // Publishes committed events, relay-batch-size per transaction, until
+    // none is left. Returns the number of events stamped.
+    @Scheduled(initialDelayString = "${banking.changes.relay-interval-ms:200}",
+            fixedDelayString = "${banking.changes.relay-interval-ms:200}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int relayPending() {
+        int stamped = 0;
+        while (true) {
+            int batch = relayTransaction.execute(status -> stampBatch());
+            stamped += batch;
+            if (batch < relayBatchSize) {
+                return stamped;
+            }
+        }
+    }
+
+    private int stampBatch() {
+        // Taken first: the unstamped rows are read after the previous relay
+        // has committed, and (on MySQL) the read view is only opened by the
+        // plain SELECT below. That SELECT must stay a non-locking read, a
+        // locking one would wait on every open transfer's uncommitted event.
+        Long last = jdbcTemplate.queryForObject(
+                "SELECT next_val FROM id_generators WHERE sequence_name = ? FOR UPDATE",
+                Long.class, COUNTER);
+        if (last == null) {
+            throw new RuntimeException("Change feed counter is missing");
+        }
+        List<Long> eventIds = jdbcTemplate.queryForList(
+                "SELECT event_id FROM change_events WHERE sequence_no IS NULL ORDER BY event_id LIMIT ?",
+                Long.class, relayBatchSize);
+        if (eventIds.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> stamps = new ArrayList<>(eventIds.size());
+        long sequence = last;
+        for (Long eventId : eventIds) {
+            stamps.add(new Object[] {++sequence, eventId});
+        }
+        jdbcTemplate.batchUpdate("UPDATE change_events SET sequence_no = ? WHERE event_id = ?", stamps);
+        jdbcTemplate.update("UPDATE id_generators SET next_val = ? WHERE sequence_name = ?",
+                sequence, COUNTER);
+        return eventIds.size();
+    }
+
+    @Scheduled(fixedDelayString = "${banking.changes.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        changeEventRepository.deleteOlderThan(LocalDateTime.now().minusDays(retentionDays));
+    }
+
+    private Object[] transactionRow(Long transactionId, String accountNumber, String type,
+                                    BigDecimal amount, String counterparty, LocalDateTime time) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("transactionId", transactionId);
+        payload.put("accountNumber", accountNumber);
+        payload.put("transactionType", type);
+        payload.put("amount", amount);
+        payload.put("counterparty", counterparty);
+        payload.put("transactionTime", time);
+        return new Object[] {TRANSACTION_CREATED, accountNumber,
+                objectMapper.writeValueAsString(payload), Timestamp.valueOf(LocalDateTime.now())};
+    }
+}
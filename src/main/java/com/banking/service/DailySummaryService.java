@@ -0,0 +1,129 @@
+package com.banking.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.banking.dto.DailySummary;
+import com.banking.repository.DailyAccountSummaryRepository;
+
+import jakarta.annotation.PostConstruct;
+
+// Daily money in / money out per account. Each transfer adds to its two
+// rows in the transfer's own transaction, so the rollup is always exactly
+// in step with the history; range queries read one row per day.
+@Service
+@Transactional
+public class DailySummaryService {
+
+    private static final BigDecimal NONE = BigDecimal.ZERO;
+
+    // One statement per account and day, insert or add. MySQL 8.0.20+
+    // deprecates VALUES(col) in favour of the row alias; H2, used by the
+    // tests, only parses the VALUES(col) form.
+    private static final String ADD_FLOW =
+            "INSERT INTO daily_account_summary "
+            + "(account_number, summary_date, slot_no, money_in, money_out, in_count, out_count) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?) AS new "
+            + "ON DUPLICATE KEY UPDATE money_in = money_in + new.money_in, "
+            + "money_out = money_out + new.money_out, "
+            + "in_count = in_count + new.in_count, "
+            + "out_count = out_count + new.out_count";
+
+    private static final String ADD_FLOW_WITHOUT_ROW_ALIAS =
+            "INSERT INTO daily_account_summary "
+            + "(account_number, summary_date, slot_no, money_in, money_out, in_count, out_count) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE money_in = money_in + VALUES(money_in), "
+            + "money_out = money_out + VALUES(money_out), "
+            + "in_count = in_count + VALUES(in_count), "
+            + "out_count = out_count + VALUES(out_count)";
+
+    @Autowired
+    private DailyAccountSummaryRepository summaryRepository;
+
+    @Autowired
+    private ShardedBalances shardedBalances;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${banking.summary.max-range-days:1830}")
+    private long maxRangeDays;
+
+    private String addFlowSql;
+
+    @PostConstruct
+    void init() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        addFlowSql = "MySQL".equalsIgnoreCase(product) ? ADD_FLOW : ADD_FLOW_WITHOUT_ROW_ALIAS;
+    }
+
+    // Rows are written in account number order, like the balances, so
+    // opposite transfers between two accounts cannot deadlock here
+    @EventListener
+    public void onTransfer(TransferCompletedEvent event) {
+        LocalDate day = event.completedAt().toLocalDate();
+        String from = event.fromAccount();
+        String to = event.toAccount();
+        BigDecimal amount = event.amount();
+
+        if (from.equals(to)) {
+            addFlow(from, day, 0, amount, amount, 1, 1);
+        } else if (from.compareTo(to) < 0) {
+            addFlow(from, day, 0, NONE, amount, 0, 1);
+            addFlow(to, day, shardedBalances.randomSlot(to), amount, NONE, 1, 0);
+        } else {
+            addFlow(to, day, shardedBalances.randomSlot(to), amount, NONE, 1, 0);
+            addFlow(from, day, 0, NONE, amount, 0, 1);
+        }
+    }
+
+    private void addFlow(String accountNumber, LocalDate day, int slotNo,
+                         BigDecimal moneyIn, BigDecimal moneyOut, long inCount, long outCount) {
+        jdbcTemplate.update(addFlowSql, accountNumber, day, slotNo, moneyIn, moneyOut, inCount, outCount);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getDailySummary(String accountNumber, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new RuntimeException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new RuntimeException("Date range cannot exceed " + maxRangeDays + " days");
+        }
+        List<DailySummary> days = summaryRepository.findDailyTotals(accountNumber, from, to);
+
+        BigDecimal moneyIn = NONE;
+        BigDecimal moneyOut = NONE;
+        long inCount = 0;
+        long outCount = 0;
+        for (DailySummary day : days) {
+            moneyIn = moneyIn.add(day.moneyIn());
+            moneyOut = moneyOut.add(day.moneyOut());
+            inCount += day.inCount();
+            outCount += day.outCount();
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("accountNumber", accountNumber);
+        result.put("from", from);
+        result.put("to", to);
+        result.put("totals", new DailySummary(null, moneyIn, moneyOut, moneyIn.subtract(moneyOut),
+                inCount, outCount));
+        result.put("days", days);
+        return result;
+    }
+}
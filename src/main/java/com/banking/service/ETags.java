@@ -0,0 +1,60 @@
+package com.banking.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.banking.dto.AccountSnapshot;
+import com.banking.repository.DailyAccountSummaryRepository;
+
+// Strong validators for the polled account and history reads, derived from
+// markers that are cheaper to read than the responses they stand for.
+@Component
+public class ETags {
+
+    // Clients may keep a copy but must revalidate it on every poll
+    public static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    @Autowired
+    private DailyAccountSummaryRepository summaryRepository;
+
+    // Version plus the reported balance and status: ledger and slot
+    // credits change the balance without bumping the row version
+    public String forAccount(AccountSnapshot account) {
+        return quote("a" + account.version() + "-"
+                + crc(account.balance().toPlainString(), account.status()));
+    }
+
+    // Transaction ids are allocated in per-node blocks and do not grow in
+    // commit order, so the marker is the account's latest daily rollup row
+    // (date and transfer count), written in every transfer's transaction.
+    // The variant (endpoint, cursor, limit) separates different responses.
+    @Transactional(readOnly = true)
+    public String forHistory(String accountNumber, Object... variant) {
+        String marker = summaryRepository.findLatestDay(accountNumber)
+                .map(day -> day.date() + "." + (day.inCount() + day.outCount()))
+                .orElse("empty");
+        String[] parts = new String[variant.length];
+        for (int i = 0; i < variant.length; i++) {
+            parts[i] = String.valueOf(variant[i]);
+        }
+        return quote("h" + marker + "-" + crc(parts));
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+
+    private static String crc(String... parts) {
+        CRC32 crc = new CRC32();
+        for (String part : parts) {
+            crc.update(part.getBytes(StandardCharsets.UTF_8));
+            crc.update('|');
+        }
+        return Long.toHexString(crc.getValue());
+    }
+}
@@ -0,0 +1,168 @@
+package com.banking.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.banking.model.IdempotencyKey;
+import com.banking.repository.IdempotencyKeyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+import tools.jackson.databind.ObjectMapper;
+
+// Replays the recorded response of a request retried with the same
+// Idempotency-Key instead of executing it again.
+//
+// The key row is inserted inside the request's own transaction, so it exists
+// exactly when the work committed: a failed attempt leaves nothing behind and
+// the key can be retried. On one node, duplicates share the first attempt's
+// future; across nodes, the second insert waits on the first one's row and
+// then fails as a duplicate, and the stored response is replayed.
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${banking.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${banking.idempotency.cache-ttl-minutes:10}")
+    private long cacheTtlMinutes;
+
+    @Value("${banking.idempotency.cache-max-size:100000}")
+    private long cacheMaxSize;
+
+    @Value("${banking.idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+
+    // In-flight and recently completed requests by "userId:key"
+    private Cache<String, CompletableFuture<Recorded>> recent;
+
+    @PostConstruct
+    void init() {
+        recent = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+                .build();
+    }
+
+    public record Outcome(Map<String, Object> response, boolean replayed) {}
+
+    private record Recorded(String fingerprint, String responseBody) {}
+
+    // What a retry must repeat for the key to be reused
+    public static String fingerprint(Object... parts) {
+        StringBuilder sb = new StringBuilder();
+        for (Object part : parts) {
+            sb.append(part).append('|');
+        }
+        return sb.toString();
+    }
+
+    // action receives the statement that records the key and must run it
+    // inside its own transaction
+    public Outcome execute(Long userId, String key, String fingerprint,
+                           Map<String, Object> response, Consumer<Runnable> action) {
+
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new RuntimeException(
+                    "Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String cacheKey = userId + ":" + key;
+        CompletableFuture<Recorded> mine = new CompletableFuture<>();
+        CompletableFuture<Recorded> first = recent.asMap().putIfAbsent(cacheKey, mine);
+        if (first != null) {
+            return replay(await(first), fingerprint);
+        }
+
+        try {
+            Optional<IdempotencyKey> stored =
+                    idempotencyKeyRepository.findById(new IdempotencyKey.KeyId(userId, key));
+            if (stored.isPresent()) {
+                Recorded recorded = recorded(stored.get());
+                mine.complete(recorded);
+                return replay(recorded, fingerprint);
+            }
+
+            String responseBody = objectMapper.writeValueAsString(response);
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                action.accept(() -> idempotencyKeyRepository.insert(
+                        userId, key, fingerprint, responseBody, now, now.plusHours(ttlHours)));
+            } catch (DataIntegrityViolationException e) {
+                // Another node committed the same key first
+                Recorded recorded = idempotencyKeyRepository
+                        .findById(new IdempotencyKey.KeyId(userId, key))
+                        .map(this::recorded)
+                        .orElseThrow(() -> e);
+                mine.complete(recorded);
+                return replay(recorded, fingerprint);
+            }
+
+            mine.complete(new Recorded(fingerprint, responseBody));
+            return new Outcome(response, false);
+
+        } catch (RuntimeException e) {
+            // Nothing was recorded: duplicates already waiting see this
+            // failure, later retries run again
+            recent.asMap().remove(cacheKey, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${banking.idempotency.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        idempotencyKeyRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private Recorded await(CompletableFuture<Recorded> first) {
+        try {
+            return first.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new RuntimeException(
+                    "A request with this Idempotency-Key is still in progress, please retry");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Request interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException re ? re : new RuntimeException(cause);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Outcome replay(Recorded recorded, String fingerprint) {
+        if (!recorded.fingerprint().equals(fingerprint)) {
+            throw new RuntimeException("Idempotency-Key was already used for a different request");
+        }
+        return new Outcome(objectMapper.readValue(recorded.responseBody(), Map.class), true);
+    }
+
+    private Recorded recorded(IdempotencyKey stored) {
+        return new Recorded(stored.getRequestFingerprint(), stored.getResponseBody());
+    }
+}
@@ -0,0 +1,223 @@
+package com.banking.service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banking.model.Account;
+import com.banking.model.LedgerCheckpoint;
+import com.banking.model.LedgerEntry;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.LedgerCheckpointRepository;
+import com.banking.repository.LedgerEntryRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+// Double-entry journal behind banking.transfer.lock-mode=LEDGER.
+//
+// A transfer appends a debit/credit entry pair and rewrites no account row.
+// Account.balance is the snapshot as of the account's last checkpoint, and
+// the current balance is that snapshot plus the sum of its pending entries
+// (checkpoint_id IS NULL). A scheduled job folds pending entries into the
+// snapshot under the account's row lock, so debits (which take the same
+// lock) always see a consistent snapshot + delta.
+@Service
+@Transactional
+public class LedgerService {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerService.class);
+
+    private static final int IN_LIST_CHUNK = 1000;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private LedgerCheckpointRepository ledgerCheckpointRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${banking.transfer.lock-mode:ATOMIC}")
+    private TransferLockMode lockMode;
+
+    @Value("${banking.ledger.checkpoint-batch-size:500}")
+    private int checkpointBatchSize;
+
+    private TransactionTemplate checkpointTransaction;
+
+    @PostConstruct
+    void init() {
+        checkpointTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    public boolean isActive() {
+        return lockMode == TransferLockMode.LEDGER;
+    }
+
+    // ===============================
+    // Posting (joins the caller's transaction)
+
+    public void postTransfer(String fromAccount, String toAccount, BigDecimal amount) {
+        String journalId = UUID.randomUUID().toString();
+        // inserted together with the transfer's history rows in one batch
+        entityManager.persist(new LedgerEntry(journalId, fromAccount, "TRANSFER_OUT", amount.negate()));
+        entityManager.persist(new LedgerEntry(journalId, toAccount, "TRANSFER_IN", amount));
+    }
+
+    public void postAdjustment(String accountNumber, BigDecimal delta) {
+        entityManager.persist(new LedgerEntry(
+                UUID.randomUUID().toString(), accountNumber, "ADJUSTMENT", delta));
+    }
+
+    // ===============================
+    // Balances
+
+    public BigDecimal pendingDelta(String accountNumber) {
+        return ledgerEntryRepository.sumPending(accountNumber);
+    }
+
+    // Snapshot + pending delta; the account must be locked for this to be
+    // a stable value
+    public BigDecimal currentBalance(Account account) {
+        return account.getBalance().add(pendingDelta(account.getAccountNumber()));
+    }
+
+    // Read paths: returns the accounts with their current balance. Adjusted
+    // accounts are detached first so the derived balance is never flushed
+    // back into the snapshot column.
+    public List<Account> withCurrentBalances(List<Account> accounts) {
+        Map<String, BigDecimal> deltas =
+                pendingDeltas(accounts.stream().map(Account::getAccountNumber).toList());
+        for (Account account : accounts) {
+            BigDecimal delta = deltas.get(account.getAccountNumber());
+            if (delta != null) {
+                entityManager.detach(account);
+                account.setBalance(account.getBalance().add(delta));
+            }
+        }
+        return accounts;
+    }
+
+    // Non-zero pending deltas by account number; empty outside LEDGER mode.
+    // Long lists are queried in chunks to stay clear of the database's
+    // placeholder limit.
+    public Map<String, BigDecimal> pendingDeltas(Collection<String> accountNumbers) {
+        Map<String, BigDecimal> deltas = new HashMap<>();
+        if (!isActive() || accountNumbers.isEmpty()) {
+            return deltas;
+        }
+        List<String> numbers = List.copyOf(accountNumbers);
+        for (int from = 0; from < numbers.size(); from += IN_LIST_CHUNK) {
+            List<String> chunk = numbers.subList(from, Math.min(numbers.size(), from + IN_LIST_CHUNK));
+            addNonZero(deltas, ledgerEntryRepository.sumPendingByAccount(chunk));
+        }
+        return deltas;
+    }
+
+    // Same for every account, in one GROUP BY over the pending entries
+    public Map<String, BigDecimal> pendingDeltas() {
+        Map<String, BigDecimal> deltas = new HashMap<>();
+        if (isActive()) {
+            addNonZero(deltas, ledgerEntryRepository.sumAllPendingByAccount());
+        }
+        return deltas;
+    }
+
+    private static void addNonZero(Map<String, BigDecimal> deltas, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            BigDecimal delta = (BigDecimal) row[1];
+            if (delta.signum() != 0) {
+                deltas.put((String) row[0], delta);
+            }
+        }
+    }
+
+    // ===============================
+    // Checkpoints
+
+    // Folds the account's pending entries into Account.balance. Joins the
+    // caller's transaction and takes the account row lock. Returns false when
+    // there was nothing to fold.
+    public boolean checkpoint(String accountNumber) {
+        Optional<Account> account = accountRepository.findForUpdate(accountNumber);
+        if (!ledgerEntryRepository.existsByAccountNumberAndCheckpointIdIsNull(accountNumber)) {
+            return false;
+        }
+
+        LedgerCheckpoint checkpoint = new LedgerCheckpoint(accountNumber);
+        entityManager.persist(checkpoint);
+        int claimed = ledgerEntryRepository.claimPending(accountNumber, checkpoint.getCheckpointId());
+        BigDecimal folded = ledgerEntryRepository.sumByCheckpoint(checkpoint.getCheckpointId());
+
+        checkpoint.setEntryCount(claimed);
+        checkpoint.setFoldedAmount(folded);
+        // Entries of a deleted account are still claimed, the checkpoint row
+        // keeps the amount for audit
+        account.ifPresent(a -> a.setBalance(a.getBalance().add(folded)));
+        return true;
+    }
+
+    // Each account is checkpointed in its own short transaction so the job
+    // never holds more than one account lock.
+    @Scheduled(initialDelayString = "${banking.ledger.checkpoint-interval-ms:5000}",
+            fixedDelayString = "${banking.ledger.checkpoint-interval-ms:5000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int checkpointPending() {
+        int checkpointed = 0;
+        List<String> accountNumbers =
+                ledgerEntryRepository.findAccountsWithPendingEntries(Limit.of(checkpointBatchSize));
+        for (String accountNumber : accountNumbers) {
+            try {
+                if (Boolean.TRUE.equals(
+                        checkpointTransaction.execute(status -> checkpoint(accountNumber)))) {
+                    checkpointed++;
+                }
+            } catch (ConcurrencyFailureException e) {
+                // picked up again on the next run
+                log.debug("Checkpoint of {} deferred: {}", accountNumber, e.getMessage());
+            }
+        }
+        return checkpointed;
+    }
+
+    // Outside LEDGER mode nothing reads the pending delta, so entries left
+    // over from an earlier LEDGER run are folded in before serving traffic.
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void foldLeftoverEntries() {
+        if (isActive()) {
+            return;
+        }
+        while (checkpointPending() > 0) {
+            // until no account has pending entries
+        }
+    }
+}
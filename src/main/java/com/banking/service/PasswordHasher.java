@@ -0,0 +1,129 @@
+package com.banking.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// BCrypt hashing on its own small, bounded pool. A login storm queues (and
+// past the queue is refused) here instead of occupying request threads, so
+// transfers keep their CPU and their threads.
+@Component
+public class PasswordHasher {
+
+    @Value("${banking.password.bcrypt-cost:12}")
+    private int cost;
+
+    // 0 = half the available cores
+    @Value("${banking.password.hash-threads:0}")
+    private int threads;
+
+    @Value("${banking.password.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${banking.password.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private BCryptPasswordEncoder encoder;
+    private ThreadPoolExecutor executor;
+
+    // Hash of a random password at the configured cost, checked for logins
+    // with an unknown username so that they take as long as a wrong password
+    private String dummyHash;
+
+    @PostConstruct
+    void init() {
+        encoder = new BCryptPasswordEncoder(cost);
+        dummyHash = encoder.encode(UUID.randomUUID().toString());
+        int poolSize = threads > 0
+                ? threads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public String hash(String rawPassword) {
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String storedHash) {
+        if (rawPassword == null || storedHash == null) {
+            return false;
+        }
+        if (!isBcrypt(storedHash)) {
+            // Rows written before hashing was introduced hold the plain password
+            return MessageDigest.isEqual(
+                    rawPassword.getBytes(StandardCharsets.UTF_8),
+                    storedHash.getBytes(StandardCharsets.UTF_8));
+        }
+        return run(() -> encoder.matches(rawPassword, storedHash));
+    }
+
+    // Same work as matches() against a real hash; never matches
+    public void matchDummy(String rawPassword) {
+        matches(rawPassword == null ? "" : rawPassword, dummyHash);
+    }
+
+    // True for legacy plain passwords and for hashes below the configured cost
+    public boolean needsRehash(String storedHash) {
+        return !isBcrypt(storedHash) || encoder.upgradeEncoding(storedHash);
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    private boolean isBcrypt(String storedHash) {
+        return storedHash.startsWith("$2a$")
+                || storedHash.startsWith("$2b$")
+                || storedHash.startsWith("$2y$");
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new RuntimeException("Too many login attempts in progress, please retry");
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new RuntimeException("Password check timed out, please retry");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Password check interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException re ? re : new RuntimeException(cause);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.banking.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Optional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.banking.dto.AuthenticatedUser;
+
+import jakarta.annotation.PostConstruct;
+
+// Stateless session tokens: "<userId>.<role>.<expiresAtEpochSeconds>.<signature>"
+// where the signature is base64url(HMAC-SHA256) of the first three fields.
+// Verifying one is a single MAC over ~30 bytes, with no database access.
+@Service
+public class SessionTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionTokenService.class);
+    private static final String ALGORITHM = "HmacSHA256";
+
+    @Value("${banking.auth.token-secret:}")
+    private String secret;
+
+    @Value("${banking.auth.token-ttl-minutes:60}")
+    private long ttlMinutes;
+
+    private SecretKeySpec key;
+
+    // Mac instances are not thread safe; keep one per thread instead of one per request
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            log.warn("banking.auth.token-secret is not set, using a random key; "
+                    + "tokens will not survive a restart or work across nodes");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        key = new SecretKeySpec(keyBytes, ALGORITHM);
+    }
+
+    public AuthenticatedUser issue(Long userId, String role) {
+        long expiresAt = System.currentTimeMillis() / 1000 + ttlMinutes * 60;
+        return new AuthenticatedUser(userId, role, expiresAt);
+    }
+
+    public String encode(AuthenticatedUser user) {
+        String payload = user.userId() + "." + user.role() + "." + user.expiresAt();
+        return payload + "." + sign(payload);
+    }
+
+    public Optional<AuthenticatedUser> verify(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int lastDot = token.lastIndexOf('.');
+        if (lastDot <= 0) {
+            return Optional.empty();
+        }
+        String payload = token.substring(0, lastDot);
+        byte[] expected = sign(payload).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = token.substring(lastDot + 1).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return Optional.empty();
+        }
+
+        String[] fields = payload.split("\\.");
+        if (fields.length != 3) {
+            return Optional.empty();
+        }
+        try {
+            long expiresAt = Long.parseLong(fields[2]);
+            if (expiresAt < System.currentTimeMillis() / 1000) {
+                return Optional.empty();
+            }
+            return Optional.of(new AuthenticatedUser(Long.valueOf(fields[0]), fields[1], expiresAt));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private String sign(String payload) {
+        byte[] mac = macs.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(mac);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.banking.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.banking.model.Account;
+import com.banking.model.AccountBalanceSlot;
+import com.banking.repository.AccountBalanceSlotRepository;
+import com.banking.repository.AccountRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+// Sub-balances for hot accounts. A sharded account's total is
+// Account.balance + the sum of its N slot rows. Credits add to one random
+// slot while holding only a shared lock on the account row, so concurrent
+// credits to the same account proceed in parallel. Debits take the account
+// row lock, spend the base balance first and draw any shortfall from the
+// slots, locked in slot order.
+//
+// Crediting the base balance is always correct too, so a stale slot count
+// only costs throughput, never money.
+@Component
+public class ShardedBalances {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountBalanceSlotRepository slotRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${banking.balance-slots.max:64}")
+    private int maxSlots;
+
+    @Value("${banking.balance-slots.cache-ttl-seconds:30}")
+    private long cacheTtlSeconds;
+
+    // account number -> slot count, consulted on every transfer
+    private Cache<String, Integer> slotCounts;
+
+    @PostConstruct
+    void init() {
+        slotCounts = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build();
+    }
+
+    public boolean isSharded(String accountNumber) {
+        return slotCounts.get(accountNumber,
+                key -> accountRepository.findBalanceSlots(key).orElse(0)) > 0;
+    }
+
+    // Slot for per-slot side tables of a hot account (0 when unsharded)
+    public int randomSlot(String accountNumber) {
+        int slots = slotCounts.get(accountNumber,
+                key -> accountRepository.findBalanceSlots(key).orElse(0));
+        return slots == 0 ? 0 : ThreadLocalRandom.current().nextInt(slots);
+    }
+
+    // Credits a random slot of an ACTIVE sharded account. Returns false when
+    // the account is not (or no longer) sharded and the caller should credit
+    // the base balance instead.
+    public boolean creditSlot(String accountNumber, BigDecimal amount) {
+        Account receiver = accountRepository.findForShare(accountNumber)
+                .orElseThrow(() -> new RuntimeException(TransferEngine.RECEIVER_UNAVAILABLE));
+        if (!receiver.getStatus().equals("ACTIVE")) {
+            throw new RuntimeException(TransferEngine.RECEIVER_UNAVAILABLE);
+        }
+        if (receiver.getBalanceSlots() == 0) {
+            return false;
+        }
+        int slot = ThreadLocalRandom.current().nextInt(receiver.getBalanceSlots());
+        return slotRepository.credit(accountNumber, slot, amount) == 1;
+    }
+
+    // Debits a locked account, drawing from its slots once the base balance
+    // runs out. Throws when the total is insufficient.
+    public void debit(Account sender, BigDecimal amount) {
+        BigDecimal shortfall = amount.subtract(sender.getBalance());
+        if (shortfall.signum() <= 0) {
+            sender.setBalance(sender.getBalance().subtract(amount));
+            return;
+        }
+        if (sender.getBalanceSlots() == 0) {
+            throw new RuntimeException("Insufficient balance");
+        }
+        List<AccountBalanceSlot> slots = slotRepository.findAllForUpdate(sender.getAccountNumber());
+        BigDecimal available = slots.stream()
+                .map(AccountBalanceSlot::getBalance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (available.compareTo(shortfall) < 0) {
+            throw new RuntimeException("Insufficient balance");
+        }
+        for (AccountBalanceSlot slot : slots) {
+            if (shortfall.signum() == 0) {
+                break;
+            }
+            BigDecimal drawn = slot.getBalance().min(shortfall);
+            slot.setBalance(slot.getBalance().subtract(drawn));
+            shortfall = shortfall.subtract(drawn);
+        }
+        sender.setBalance(BigDecimal.ZERO);
+    }
+
+    // Moves every slot balance of a locked account into Account.balance
+    public void collapse(Account account) {
+        if (account.getBalanceSlots() == 0) {
+            return;
+        }
+        BigDecimal total = account.getBalance();
+        for (AccountBalanceSlot slot : slotRepository.findAllForUpdate(account.getAccountNumber())) {
+            total = total.add(slot.getBalance());
+            slot.setBalance(BigDecimal.ZERO);
+        }
+        account.setBalance(total);
+    }
+
+    // Re-shards a locked account into `slots` sub-balances (0 turns sharding
+    // off). The whole balance is collapsed into the base row first and the
+    // slots start empty.
+    public void reshard(Account account, int slots) {
+        if (slots < 0 || slots > maxSlots) {
+            throw new RuntimeException("Balance slots must be between 0 and " + maxSlots);
+        }
+        collapse(account);
+        Set<Integer> kept = new HashSet<>();
+        for (AccountBalanceSlot slot : slotRepository.findAllForUpdate(account.getAccountNumber())) {
+            if (slot.getSlotNo() < slots) {
+                kept.add(slot.getSlotNo());
+            } else {
+                entityManager.remove(slot);
+            }
+        }
+        for (int slot = 0; slot < slots; slot++) {
+            if (!kept.contains(slot)) {
+                entityManager.persist(new AccountBalanceSlot(account.getAccountNumber(), slot));
+            }
+        }
+        account.setBalanceSlots(slots);
+
+        String accountNumber = account.getAccountNumber();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    slotCounts.invalidate(accountNumber);
+                }
+            });
+        } else {
+            slotCounts.invalidate(accountNumber);
+        }
+    }
+
+    // Sum of a sharded account's slots, zero for an unsharded one
+    public BigDecimal slotTotal(Account account) {
+        return account.getBalanceSlots() == 0
+                ? BigDecimal.ZERO
+                : slotRepository.sumByAccountNumber(account.getAccountNumber());
+    }
+
+    // Read paths: reports the total in Account.balance. Adjusted accounts are
+    // detached so the total is never flushed into the base column.
+    public List<Account> withSlotTotals(List<Account> accounts) {
+        Map<String, BigDecimal> totals = slotTotals(accounts.stream()
+                .filter(a -> a.getBalanceSlots() > 0)
+                .map(Account::getAccountNumber)
+                .toList());
+        for (Account account : accounts) {
+            BigDecimal slotTotal = totals.get(account.getAccountNumber());
+            if (slotTotal != null) {
+                entityManager.detach(account);
+                account.setBalance(account.getBalance().add(slotTotal));
+            }
+        }
+        return accounts;
+    }
+
+    // Non-zero slot totals of the given (sharded) accounts
+    public Map<String, BigDecimal> slotTotals(Collection<String> shardedAccountNumbers) {
+        Map<String, BigDecimal> totals = new HashMap<>();
+        if (shardedAccountNumbers.isEmpty()) {
+            return totals;
+        }
+        for (Object[] row : slotRepository.sumByAccountNumbers(shardedAccountNumbers)) {
+            BigDecimal total = (BigDecimal) row[1];
+            if (total.signum() != 0) {
+                totals.put((String) row[0], total);
+            }
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,300 @@
+package com.banking.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.banking.model.Transaction;
+import com.banking.repository.TransactionRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import tools.jackson.databind.ObjectMapper;
+
+// Streams exports row by row from a database cursor straight to the
+// response. Every row is detached once written, so heap use does not grow
+// with the size of the export. Each running export holds one pooled
+// connection, hence the cap on concurrent exports.
+@Service
+public class TransactionExportService {
+
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private static final Sort STATEMENT_ORDER =
+            Sort.by("transactionTime").ascending().and(Sort.by("transactionId").ascending());
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${banking.export.max-concurrent:4}")
+    private int maxConcurrent;
+
+    @Value("${banking.export.max-chunk-size:10000}")
+    private int maxChunkSize;
+
+    @Value("${banking.export.max-workers:4}")
+    private int maxWorkers;
+
+    private Semaphore exportPermits;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void init() {
+        exportPermits = new Semaphore(maxConcurrent);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    // The export slot is claimed here, before the response is committed, so
+    // a request over the limit still gets a normal error response
+    public StreamingResponseBody statement(String accountNumber, LocalDate from, LocalDate to,
+                                           StatementFormat format) {
+        LocalDateTime start = from == null ? EARLIEST : from.atStartOfDay();
+        LocalDateTime end = to == null ? LATEST : to.atTime(LocalTime.MAX);
+        if (start.isAfter(end)) {
+            throw new RuntimeException("from must not be after to");
+        }
+        claimExportSlot();
+        return out -> {
+            try {
+                readOnlyTransaction.executeWithoutResult(status ->
+                        writeStatement(accountNumber, start, end, format, out));
+            } finally {
+                exportPermits.release();
+            }
+        };
+    }
+
+    // Full-table dump of the rows with transactionId in (afterId, last id at
+    // the time of the call], as gzip-compressed NDJSON in id order. An
+    // interrupted download resumes with afterId = the last id received.
+    // Rows are read in id ranges of chunkSize, up to `workers` ranges are
+    // fetched in parallel, each in its own short read-only transaction, and
+    // written in order. At most `workers` chunks are held in memory.
+    //
+    // Not a snapshot: pooled ids are not handed out in commit order, so a
+    // row below lastId can commit after its range was read. Such rows are
+    // never recovered by resuming on ids; the returned sequence is the
+    // change feed position to pass to changesExport next time instead, and
+    // every row the dump can have missed is after it. Rows committed while
+    // the dump ran may appear in both exports; load by transactionId.
+    public BulkExport bulkExport(long afterId, int chunkSize, int workers) {
+        if (afterId < 0) {
+            throw new RuntimeException("afterId must not be negative");
+        }
+        int size = Math.max(1, Math.min(chunkSize, maxChunkSize));
+        int parallelism = Math.max(1, Math.min(workers, maxWorkers));
+        // read before lastId: every row published up to here is committed,
+        // so its id is at most lastId
+        long sequence = changeFeedService.publishedSequence();
+        long lastId = transactionRepository.findFirstByOrderByTransactionIdDesc()
+                .map(Transaction::getTransactionId)
+                .orElse(0L);
+        claimExportSlot();
+        StreamingResponseBody body = out -> {
+            try {
+                writeChunks(afterId, lastId, size, parallelism, out,
+                        transactionRepository::findByTransactionIdBetweenOrderByTransactionIdAsc);
+            } finally {
+                exportPermits.release();
+            }
+        };
+        return new BulkExport(body, lastId, sequence);
+    }
+
+    // Incremental export: the rows created by change feed events in
+    // (afterSequence, last published sequence at the time of the call], in
+    // commit order. Feed sequence numbers are stamped after commit, so
+    // nothing that commits late is skipped, and consecutive runs neither
+    // overlap nor leave gaps. Chunks are sequence ranges of chunkSize and
+    // are fetched like bulkExport's. Fails once the retention purge has
+    // removed part of the range; run a full bulkExport then.
+    public BulkExport changesExport(long afterSequence, int chunkSize, int workers) {
+        if (afterSequence < 0) {
+            throw new RuntimeException("afterSequence must not be negative");
+        }
+        if (!changeFeedService.isRetainedAfter(afterSequence)) {
+            throw new RuntimeException(
+                    "Changes after " + afterSequence + " are no longer retained, run a full export");
+        }
+        int size = Math.max(1, Math.min(chunkSize, maxChunkSize));
+        int parallelism = Math.max(1, Math.min(workers, maxWorkers));
+        long sequence = Math.max(afterSequence, changeFeedService.publishedSequence());
+        claimExportSlot();
+        StreamingResponseBody body = out -> {
+            try {
+                writeChunks(afterSequence, sequence, size, parallelism, out, this::readChanges);
+            } finally {
+                exportPermits.release();
+            }
+        };
+        return new BulkExport(body, null, sequence);
+    }
+
+    // lastId is null for changesExport
+    public record BulkExport(StreamingResponseBody body, Long lastId, long sequence) {}
+
+    private interface ChunkReader {
+        List<Transaction> read(long from, long to);
+    }
+
+    private List<Transaction> readChanges(long fromSequence, long toSequence) {
+        List<Long> ids = changeFeedService.transactionIdsBetween(fromSequence, toSequence);
+        Map<Long, Transaction> rows = new HashMap<>();
+        transactionRepository.findAllById(ids).forEach(txn -> rows.put(txn.getTransactionId(), txn));
+        return ids.stream().map(rows::get).filter(Objects::nonNull).toList();
+    }
+
+    // Reads (after, last] in ranges of chunkSize through `reader`
+    private void writeChunks(long after, long last, int chunkSize, int workers, OutputStream out,
+                             ChunkReader reader) throws IOException {
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService fetchers = Executors.newFixedThreadPool(workers, task -> {
+            Thread thread = new Thread(task, "bulk-export-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Deque<Future<List<Transaction>>> inFlight = new ArrayDeque<>();
+        try {
+            GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024, true);
+            Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), 64 * 1024);
+            long next = after;
+            while (next < last || !inFlight.isEmpty()) {
+                while (inFlight.size() < workers && next < last) {
+                    long from = next + 1;
+                    long to = Math.min(last, next + chunkSize);
+                    inFlight.add(fetchers.submit(() -> readOnlyTransaction.execute(status ->
+                            reader.read(from, to))));
+                    next = to;
+                }
+                for (Transaction txn : await(inFlight.poll())) {
+                    writer.write(objectMapper.writeValueAsString(txn));
+                    writer.write('\n');
+                }
+                // hand each chunk to the client as it completes
+                writer.flush();
+            }
+            gzip.finish();
+            gzip.flush();
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+            fetchers.shutdownNow();
+        }
+    }
+
+    private static List<Transaction> await(Future<List<Transaction>> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Export chunk failed", e.getCause());
+        }
+    }
+
+    void writeStatement(String accountNumber, LocalDateTime start, LocalDateTime end,
+                        StatementFormat format, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        try (Stream<Transaction> rows = transactionRepository
+                .findByAccountNumberAndTransactionTimeBetween(accountNumber, start, end, STATEMENT_ORDER)) {
+            if (format == StatementFormat.CSV) {
+                writer.write("transactionId,accountNumber,transactionType,amount,transactionTime,description,status\n");
+            }
+            for (Transaction txn : (Iterable<Transaction>) rows::iterator) {
+                writeRow(writer, txn, format);
+                entityManager.detach(txn);
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void claimExportSlot() {
+        if (!exportPermits.tryAcquire()) {
+            throw new RuntimeException("Too many exports in progress, please retry");
+        }
+    }
+
+    private void writeRow(Writer writer, Transaction txn, StatementFormat format) throws IOException {
+        if (format == StatementFormat.NDJSON) {
+            writer.write(objectMapper.writeValueAsString(txn));
+            writer.write('\n');
+            return;
+        }
+        writer.write(String.valueOf(txn.getTransactionId()));
+        writer.write(',');
+        writer.write(csv(txn.getAccountNumber()));
+        writer.write(',');
+        writer.write(csv(txn.getTransactionType()));
+        writer.write(',');
+        writer.write(txn.getAmount().toPlainString());
+        writer.write(',');
+        writer.write(String.valueOf(txn.getTransactionTime()));
+        writer.write(',');
+        writer.write(csv(txn.getDescription()));
+        writer.write(',');
+        writer.write(csv(txn.getStatus()));
+        writer.write('\n');
+    }
+
+    // RFC 4180 quoting, plus a leading quote for cells a spreadsheet would
+    // otherwise evaluate as a formula
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
@@ -1,16 +1,21 @@
 package com.banking.service;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.banking.model.Account;
+import com.banking.dto.TransactionCursor;
+import com.banking.dto.TransactionPage;
 import com.banking.model.Transaction;
-import com.banking.repository.AccountRepository;
 import com.banking.repository.TransactionRepository;
 
 @Service
@@ -21,85 +26,141 @@ public class TransactionService {
     private TransactionRepository transactionRepository;
 
     @Autowired
-    private AccountRepository accountRepository;
+    private TransferEngine transferEngine;
+
+    @Autowired
+    private TransferMetrics transferMetrics;
+
+    @Autowired
+    private TransferPipeline transferPipeline;
+
+    @Value("${banking.history.max-page-size:200}")
+    private int maxPageSize;
+
+    @Value("${banking.history.max-admin-list-size:1000}")
+    private int maxAdminListSize;
 
     // =========================
     // FUND TRANSFER
     // =========================
+    // Runs outside the class-level transaction: the engine opens one
+    // transaction per attempt so a lock conflict can be retried cleanly.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void transferMoney(String fromAccount,
                               String toAccount,
                               BigDecimal amount) {
+        transferMoney(fromAccount, toAccount, amount, null);
+    }
 
-        if(amount.compareTo(BigDecimal.ZERO) <= 0){
-            throw new RuntimeException("Amount must be greater than zero");
-        }
+    // ownerUserId, when given, must own the sender account; the check is
+    // part of the debit itself rather than a separate lookup
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void transferMoney(String fromAccount,
+                              String toAccount,
+                              BigDecimal amount,
+                              Long ownerUserId) {
+        transferMoney(fromAccount, toAccount, amount, ownerUserId, null);
+    }
 
-        Account sender = accountRepository.findByAccountNumber(fromAccount)
-                .orElseThrow(() ->
-                        new RuntimeException("Sender account not found"));
+    // firstInTransaction commits or rolls back together with the transfer
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void transferMoney(String fromAccount,
+                              String toAccount,
+                              BigDecimal amount,
+                              Long ownerUserId,
+                              Runnable firstInTransaction) {
 
-        Account receiver = accountRepository.findByAccountNumber(toAccount)
-                .orElseThrow(() ->
-                        new RuntimeException("Receiver account not found"));
+        validateTransfer(fromAccount, toAccount, amount);
+        transferEngine.transfer(fromAccount, toAccount, amount, ownerUserId, firstInTransaction);
+    }
 
-        if(!sender.getStatus().equals("ACTIVE")){
-            throw new RuntimeException("Sender account is not active");
-        }
+    // Queues the transfer for the pipeline's writers and returns at once;
+    // the outcome is read back with getQueuedTransfer
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TransferPipeline.TransferStatus submitTransfer(String fromAccount,
+                                                          String toAccount,
+                                                          BigDecimal amount,
+                                                          Long ownerUserId) {
 
-        if(!receiver.getStatus().equals("ACTIVE")){
-            throw new RuntimeException("Receiver account is not active");
-        }
+        validateTransfer(fromAccount, toAccount, amount);
+        return transferPipeline.submit(new TransferOrder(fromAccount, toAccount, amount, ownerUserId));
+    }
 
-        if(sender.getBalance().compareTo(amount) < 0){
-            throw new RuntimeException("Insufficient balance");
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<TransferPipeline.TransferStatus> getQueuedTransfer(String transferId){
+        return transferPipeline.getStatus(transferId);
+    }
+
+    public boolean isTransferPipelineEnabled(){
+        return transferPipeline.isEnabled();
+    }
+
+    private void validateTransfer(String fromAccount, String toAccount, BigDecimal amount){
+
+        if(amount.compareTo(BigDecimal.ZERO) <= 0){
+            throw new RuntimeException("Amount must be greater than zero");
         }
 
-        // Debit sender
-        sender.setBalance(sender.getBalance().subtract(amount));
-        accountRepository.save(sender);
-
-        // Credit receiver
-        receiver.setBalance(receiver.getBalance().add(amount));
-        accountRepository.save(receiver);
-
-        // Sender transaction
-        Transaction debitTxn = new Transaction(
-                fromAccount,
-                "TRANSFER_OUT",
-                amount,
-                "Transferred to " + toAccount
-        );
-
-        // Receiver transaction
-        Transaction creditTxn = new Transaction(
-                toAccount,
-                "TRANSFER_IN",
-                amount,
-                "Received from " + fromAccount
-        );
+        // Typos fail the check digit here instead of costing a lookup
+        if(!AccountNumberAllocator.isWellFormed(fromAccount)){
+            throw new RuntimeException("Invalid sender account number");
+        }
 
-        transactionRepository.save(debitTxn);
-        transactionRepository.save(creditTxn);
+        if(!AccountNumberAllocator.isWellFormed(toAccount)){
+            throw new RuntimeException("Invalid receiver account number");
+        }
     }
 
     // =========================
     // VIEW TRANSACTIONS
     // =========================
-    public List<Transaction> getTransactionsByAccountNumber(String accountNumber){
-        return transactionRepository
-                .findByAccountNumberOrderByTransactionTimeDesc(accountNumber);
+    public TransactionPage getTransactionsByAccountNumber(String accountNumber,
+                                                          String cursor,
+                                                          int limit){
+        return toPage(transactionRepository
+                .findByAccountNumberOrderByTransactionTimeDescTransactionIdDesc(
+                        accountNumber,
+                        TransactionCursor.decode(cursor),
+                        Limit.of(clampLimit(limit))));
     }
 
-    public List<Transaction> getAllTransactions(){
-        return transactionRepository.findAll();
+    // Newest first and capped: the full table goes through the bulk export
+    public List<Transaction> getLatestTransactions(int limit){
+        return transactionRepository.findAllByOrderByTransactionIdDesc(
+                Limit.of(Math.max(1, Math.min(limit, maxAdminListSize))));
     }
     
-    public List<Transaction> getReceivedMoney(String accountNumber){
-        return transactionRepository
-            .findByAccountNumberAndTransactionTypeOrderByTransactionTimeDesc(
+    public TransactionPage getReceivedMoney(String accountNumber,
+                                            String cursor,
+                                            int limit){
+        return toPage(transactionRepository
+            .findByAccountNumberAndTransactionTypeOrderByTransactionTimeDescTransactionIdDesc(
                 accountNumber,
-                "TRANSFER_IN"
-            );
+                "TRANSFER_IN",
+                TransactionCursor.decode(cursor),
+                Limit.of(clampLimit(limit))
+            ));
+    }
+
+    private int clampLimit(int limit){
+        return Math.max(1, Math.min(limit, maxPageSize));
+    }
+
+    private TransactionPage toPage(Window<Transaction> window){
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? TransactionCursor.encode(window.positionAt(window.size() - 1))
+                : null;
+        return new TransactionPage(window.getContent(), nextCursor, nextCursor != null);
+    }
+
+    public TransferLockMode getTransferLockMode(){
+        return transferEngine.getLockMode();
+    }
+
+    public Map<String, Object> getTransferStats(){
+        Map<String, Object> stats = transferMetrics.snapshot();
+        stats.put("pipeline", transferPipeline.stats());
+        return stats;
     }
 
 }
@@ -0,0 +1,27 @@
+package com.banking.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Published by the transfer engine inside the transfer's transaction, after
+// both history rows are saved. Plain @EventListeners therefore run in that
+// transaction (and can roll it back); use @TransactionalEventListener for
+// work that must only see committed transfers.
+//
+// fromBalance / toBalance are the balances right after this transfer, read
+// inside its transaction while it held the account exclusively, and
+// balancesReadAt (System.nanoTime) is when; later reads on this node carry
+// later times. A balance is null when nobody on this node watches the
+// account, or when other transfers can change it concurrently (a sharded
+// account, or the receiver in LEDGER mode).
+public record TransferCompletedEvent(
+        String fromAccount,
+        String toAccount,
+        BigDecimal amount,
+        Long debitTransactionId,
+        Long creditTransactionId,
+        LocalDateTime completedAt,
+        BigDecimal fromBalance,
+        BigDecimal toBalance,
+        long balancesReadAt) {
+}
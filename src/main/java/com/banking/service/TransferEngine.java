@@ -0,0 +1,371 @@
+package com.banking.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banking.model.Account;
+import com.banking.model.Transaction;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.TransactionRepository;
+
+import jakarta.annotation.PostConstruct;
+
+// Runs each transfer in its own transaction and retries it on lock conflicts.
+// Both accounts are always locked in account number order, so two transfers
+// touching the same pair of accounts queue behind each other instead of
+// deadlocking, while unrelated transfers never wait on each other.
+@Component
+public class TransferEngine {
+
+    private static final String ACCESS_DENIED =
+            "Access denied. You can only access your own accounts.";
+
+    // One message for a missing and for an inactive receiver, so that a
+    // sender cannot probe which account numbers exist or are active
+    static final String RECEIVER_UNAVAILABLE = "Receiver account cannot accept transfers";
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransferMetrics transferMetrics;
+
+    @Autowired
+    private AccountCache accountCache;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private ShardedBalances shardedBalances;
+
+    @Autowired
+    private AccountEventHub accountEventHub;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${banking.transfer.lock-mode:ATOMIC}")
+    private TransferLockMode lockMode;
+
+    @Value("${banking.transfer.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${banking.transfer.initial-backoff-ms:5}")
+    private long initialBackoffMs;
+
+    @Value("${banking.transfer.max-backoff-ms:200}")
+    private long maxBackoffMs;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public TransferLockMode getLockMode() {
+        return lockMode;
+    }
+
+    public void transfer(String fromAccount, String toAccount, BigDecimal amount,
+                         Long ownerUserId) {
+        transfer(fromAccount, toAccount, amount, ownerUserId, null);
+    }
+
+    // firstInTransaction, when given, runs at the start of every attempt's
+    // transaction, before any account is touched, and commits or rolls back
+    // with the transfer
+    public void transfer(String fromAccount, String toAccount, BigDecimal amount,
+                         Long ownerUserId, Runnable firstInTransaction) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (firstInTransaction != null) {
+                        firstInTransaction.run();
+                    }
+                    transferOnce(fromAccount, toAccount, amount, ownerUserId);
+                });
+                transferMetrics.recordTransfer();
+                return;
+            } catch (ConcurrencyFailureException e) {
+                transferMetrics.recordConflict();
+                if (attempt >= maxAttempts) {
+                    transferMetrics.recordExhausted();
+                    throw new RuntimeException(
+                            "Transfer could not be completed due to concurrent updates, please retry");
+                }
+                transferMetrics.recordRetry();
+                backoff(attempt);
+            }
+        }
+    }
+
+    // Several transfers in one transaction and one commit. Any failure rolls
+    // back the whole batch and is rethrown; the caller then runs the orders
+    // one at a time through transfer() to find the one that failed.
+    public void transferBatch(List<TransferOrder> orders) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (TransferOrder order : orders) {
+                transferOnce(order.fromAccount(), order.toAccount(), order.amount(),
+                        order.ownerUserId());
+            }
+        });
+        transferMetrics.recordBatch(orders.size());
+    }
+
+    private void transferOnce(String fromAccount, String toAccount, BigDecimal amount,
+                              Long ownerUserId) {
+
+        if (lockMode == TransferLockMode.ATOMIC) {
+            moveAtomically(fromAccount, toAccount, amount, ownerUserId);
+        } else if (lockMode == TransferLockMode.LEDGER) {
+            moveThroughLedger(fromAccount, toAccount, amount, ownerUserId);
+        } else {
+            moveWithEntities(fromAccount, toAccount, amount, ownerUserId);
+        }
+
+        // Sender transaction
+        Transaction debitTxn = new Transaction(
+                fromAccount,
+                "TRANSFER_OUT",
+                amount,
+                "Transferred to " + toAccount
+        );
+
+        // Receiver transaction
+        Transaction creditTxn = new Transaction(
+                toAccount,
+                "TRANSFER_IN",
+                amount,
+                "Received from " + fromAccount
+        );
+
+        // Flushed together at commit as one JDBC batch
+        transactionRepository.saveAll(List.of(debitTxn, creditTxn));
+
+        // The sender is held exclusively in every mode, the receiver in all
+        // but LEDGER mode
+        BigDecimal fromBalance = balanceAfter(fromAccount);
+        BigDecimal toBalance = lockMode == TransferLockMode.LEDGER ? null : balanceAfter(toAccount);
+
+        eventPublisher.publishEvent(new TransferCompletedEvent(
+                fromAccount, toAccount, amount,
+                debitTxn.getTransactionId(), creditTxn.getTransactionId(),
+                debitTxn.getTransactionTime(),
+                fromBalance, toBalance, System.nanoTime()));
+
+        accountCache.evictAfterCommit(fromAccount, toAccount);
+    }
+
+    private void moveWithEntities(String fromAccount, String toAccount, BigDecimal amount,
+                                  Long ownerUserId) {
+
+        // A sharded receiver is never locked exclusively: it takes a shared
+        // row lock and one slot, in the usual account number order
+        if (!fromAccount.equals(toAccount) && shardedBalances.isSharded(toAccount)) {
+            if (fromAccount.compareTo(toAccount) < 0) {
+                debitEntity(fromAccount, amount, ownerUserId);
+                credit(toAccount, amount);
+            } else {
+                credit(toAccount, amount);
+                debitEntity(fromAccount, amount, ownerUserId);
+            }
+            return;
+        }
+
+        boolean senderFirst = fromAccount.compareTo(toAccount) <= 0;
+        String firstNumber = senderFirst ? fromAccount : toAccount;
+        String secondNumber = senderFirst ? toAccount : fromAccount;
+
+        Optional<Account> first = load(firstNumber);
+        Optional<Account> second = firstNumber.equals(secondNumber) ? first : load(secondNumber);
+
+        Account sender = (senderFirst ? first : second)
+                .orElseThrow(() -> new RuntimeException("Sender account not found"));
+        Account receiver = (senderFirst ? second : first)
+                .orElseThrow(() -> new RuntimeException(RECEIVER_UNAVAILABLE));
+
+        if(ownerUserId != null && !ownerUserId.equals(sender.getUserId())){
+            throw new RuntimeException(ACCESS_DENIED);
+        }
+
+        if(!sender.getStatus().equals("ACTIVE")){
+            throw new RuntimeException("Sender account is not active");
+        }
+
+        if(!receiver.getStatus().equals("ACTIVE")){
+            throw new RuntimeException(RECEIVER_UNAVAILABLE);
+        }
+
+        // Debit sender (a sharded sender draws from its slots past its base balance)
+        shardedBalances.debit(sender, amount);
+        accountRepository.save(sender);
+
+        // Credit receiver
+        receiver.setBalance(receiver.getBalance().add(amount));
+        accountRepository.save(receiver);
+    }
+
+    // Two guarded UPDATE statements instead of two SELECTs and two entity
+    // saves. They still run in account number order so that A->B and B->A
+    // take their row locks the same way round.
+    private void moveAtomically(String fromAccount, String toAccount, BigDecimal amount,
+                                Long ownerUserId) {
+
+        if (fromAccount.compareTo(toAccount) <= 0) {
+            debit(fromAccount, amount, ownerUserId);
+            credit(toAccount, amount);
+        } else {
+            credit(toAccount, amount);
+            debit(fromAccount, amount, ownerUserId);
+        }
+    }
+
+    // The sender is locked, so that its snapshot + pending delta cannot
+    // change under the balance check. The receiver only takes a shared lock,
+    // like a sharded receiver's slot credit: transfers into a busy account
+    // do not queue behind each other, but a close, checkpoint or status
+    // change cannot commit between the status check and the credit. Both
+    // are locked in account number order.
+    private void moveThroughLedger(String fromAccount, String toAccount, BigDecimal amount,
+                                   Long ownerUserId) {
+
+        Account sender;
+        Account receiver;
+        if (fromAccount.equals(toAccount)) {
+            sender = load(fromAccount)
+                    .orElseThrow(() -> new RuntimeException("Sender account not found"));
+            receiver = sender;
+        } else if (fromAccount.compareTo(toAccount) < 0) {
+            sender = load(fromAccount)
+                    .orElseThrow(() -> new RuntimeException("Sender account not found"));
+            receiver = accountRepository.findForShare(toAccount)
+                    .orElseThrow(() -> new RuntimeException(RECEIVER_UNAVAILABLE));
+        } else {
+            receiver = accountRepository.findForShare(toAccount)
+                    .orElseThrow(() -> new RuntimeException(RECEIVER_UNAVAILABLE));
+            sender = load(fromAccount)
+                    .orElseThrow(() -> new RuntimeException("Sender account not found"));
+        }
+
+        if(ownerUserId != null && !ownerUserId.equals(sender.getUserId())){
+            throw new RuntimeException(ACCESS_DENIED);
+        }
+
+        if(!sender.getStatus().equals("ACTIVE")){
+            throw new RuntimeException("Sender account is not active");
+        }
+
+        if(!receiver.getStatus().equals("ACTIVE")){
+            throw new RuntimeException(RECEIVER_UNAVAILABLE);
+        }
+
+        if(ledgerService.currentBalance(sender).compareTo(amount) < 0){
+            // slots of a sharded sender are spent by folding them into the base
+            shardedBalances.collapse(sender);
+            if(ledgerService.currentBalance(sender).compareTo(amount) < 0){
+                throw new RuntimeException("Insufficient balance");
+            }
+        }
+
+        ledgerService.postTransfer(fromAccount, toAccount, amount);
+    }
+
+    private void debit(String accountNumber, BigDecimal amount, Long ownerUserId) {
+        if (accountRepository.debitIfActiveAndFunded(accountNumber, amount, ownerUserId) == 1) {
+            return;
+        }
+        // Off the hot path: the base balance was short (a sharded account may
+        // still cover it from its slots) or a guard failed
+        Account sender = accountRepository.findForUpdate(accountNumber)
+                .orElseThrow(() -> new RuntimeException("Sender account not found"));
+        if (ownerUserId != null && !ownerUserId.equals(sender.getUserId())) {
+            throw new RuntimeException(ACCESS_DENIED);
+        }
+        if (!sender.getStatus().equals("ACTIVE")) {
+            throw new RuntimeException("Sender account is not active");
+        }
+        shardedBalances.debit(sender, amount);
+    }
+
+    // Single-account debit for the entity modes
+    private void debitEntity(String accountNumber, BigDecimal amount, Long ownerUserId) {
+        Account sender = load(accountNumber)
+                .orElseThrow(() -> new RuntimeException("Sender account not found"));
+        if(ownerUserId != null && !ownerUserId.equals(sender.getUserId())){
+            throw new RuntimeException(ACCESS_DENIED);
+        }
+        if(!sender.getStatus().equals("ACTIVE")){
+            throw new RuntimeException("Sender account is not active");
+        }
+        shardedBalances.debit(sender, amount);
+        accountRepository.save(sender);
+    }
+
+    private void credit(String accountNumber, BigDecimal amount) {
+        if (shardedBalances.isSharded(accountNumber)
+                && shardedBalances.creditSlot(accountNumber, amount)) {
+            return;
+        }
+        if (accountRepository.creditIfActive(accountNumber, amount) == 1) {
+            return;
+        }
+        throw new RuntimeException(RECEIVER_UNAVAILABLE);
+    }
+
+    // For the account event streams, so only read when someone on this node
+    // watches the account. Credits to a sharded account only take a shared
+    // lock, so its total is not ordered by this transfer.
+    private BigDecimal balanceAfter(String accountNumber) {
+        if (!accountEventHub.isWatched(accountNumber) || shardedBalances.isSharded(accountNumber)) {
+            return null;
+        }
+        // A scalar read: in a batch an earlier order may have loaded this
+        // account as an entity before a later set-based leg changed the row
+        return accountRepository.findBalance(accountNumber)
+                .map(balance -> ledgerService.isActive()
+                        ? balance.add(ledgerService.pendingDelta(accountNumber)) : balance)
+                .orElse(null);
+    }
+
+    private Optional<Account> load(String accountNumber) {
+        if (lockMode == TransferLockMode.OPTIMISTIC) {
+            return accountRepository.findByAccountNumber(accountNumber);
+        }
+        long start = System.nanoTime();
+        Optional<Account> account = accountRepository.findForUpdate(accountNumber);
+        transferMetrics.recordLockWait(System.nanoTime() - start);
+        return account;
+    }
+
+    // Exponential backoff with full jitter, capped at max-backoff-ms
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Transfer interrupted");
+        }
+    }
+}
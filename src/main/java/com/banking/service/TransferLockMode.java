@@ -0,0 +1,12 @@
+package com.banking.service;
+
+public enum TransferLockMode {
+    // SELECT ... FOR UPDATE on both accounts, taken in account number order
+    PESSIMISTIC,
+    // plain reads, conflicts detected through Account.version at commit
+    OPTIMISTIC,
+    // conditional UPDATE statements, no entity loading
+    ATOMIC,
+    // append-only ledger entries, only the sender row is locked (see LedgerService)
+    LEDGER
+}
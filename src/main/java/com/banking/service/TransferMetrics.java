@@ -0,0 +1,76 @@
+package com.banking.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+@Component
+public class TransferMetrics {
+
+    private final LongAdder transfers = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedTransfers = new LongAdder();
+    private final LongAdder batchFallbacks = new LongAdder();
+    private final LongAdder lockAcquisitions = new LongAdder();
+    private final LongAdder lockWaitNanos = new LongAdder();
+    private final LongAccumulator maxLockWaitNanos = new LongAccumulator(Math::max, 0);
+
+    public void recordTransfer() {
+        transfers.increment();
+    }
+
+    public void recordConflict() {
+        conflicts.increment();
+    }
+
+    public void recordRetry() {
+        retries.increment();
+    }
+
+    public void recordExhausted() {
+        exhausted.increment();
+    }
+
+    public void recordBatch(int size) {
+        batches.increment();
+        batchedTransfers.add(size);
+        transfers.add(size);
+    }
+
+    public void recordBatchFallback() {
+        batchFallbacks.increment();
+    }
+
+    public void recordLockWait(long nanos) {
+        lockAcquisitions.increment();
+        lockWaitNanos.add(nanos);
+        maxLockWaitNanos.accumulate(nanos);
+    }
+
+    public Map<String, Object> snapshot() {
+        long acquisitions = lockAcquisitions.sum();
+        long waitNanos = lockWaitNanos.sum();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("transfers", transfers.sum());
+        stats.put("conflicts", conflicts.sum());
+        stats.put("retries", retries.sum());
+        stats.put("retriesExhausted", exhausted.sum());
+        stats.put("batches", batches.sum());
+        stats.put("batchedTransfers", batchedTransfers.sum());
+        stats.put("batchFallbacks", batchFallbacks.sum());
+        stats.put("lockAcquisitions", acquisitions);
+        stats.put("lockWaitTotalMs", TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        stats.put("lockWaitAvgMicros",
+                acquisitions == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(waitNanos / acquisitions));
+        stats.put("lockWaitMaxMs", TimeUnit.NANOSECONDS.toMillis(maxLockWaitNanos.get()));
+        return stats;
+    }
+}
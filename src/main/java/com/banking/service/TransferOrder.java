@@ -0,0 +1,12 @@
+package com.banking.service;
+
+import java.math.BigDecimal;
+
+// One transfer as queued by the transfer pipeline; ownerUserId, when given,
+// must own the sender account
+public record TransferOrder(
+        String fromAccount,
+        String toAccount,
+        BigDecimal amount,
+        Long ownerUserId) {
+}
@@ -0,0 +1,218 @@
+package com.banking.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Asynchronous transfers (banking.transfer.pipeline.enabled). Accepted
+// transfers are queued on one of a fixed number of partitions, chosen by the
+// sender account number, and each partition has a single writer thread. All
+// debits of an account are therefore made by one thread, in arrival order,
+// and never contend with each other.
+//
+// A writer takes whatever has queued up (up to batch-size) and runs it as
+// one transaction. If anything in the batch fails, the batch is rolled back
+// and its transfers are run again one at a time, each with the engine's
+// usual retries, so one bad transfer only costs its batch a second pass.
+//
+// Delivery is at most once. Queues and statuses are in memory and nothing
+// is persisted before a transfer runs: transfers still queued when the node
+// stops are drained for up to shutdown-timeout-ms, and whatever is left, or
+// lost to a crash, never runs. Statuses are kept for status-ttl-minutes and
+// at most status-max-size of them; an evicted status reads as not found.
+@Component
+public class TransferPipeline {
+
+    @Autowired
+    private TransferEngine transferEngine;
+
+    @Autowired
+    private TransferMetrics transferMetrics;
+
+    @Value("${banking.transfer.pipeline.enabled:false}")
+    private boolean enabled;
+
+    @Value("${banking.transfer.pipeline.partitions:4}")
+    private int partitions;
+
+    @Value("${banking.transfer.pipeline.batch-size:50}")
+    private int batchSize;
+
+    @Value("${banking.transfer.pipeline.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${banking.transfer.pipeline.status-ttl-minutes:60}")
+    private long statusTtlMinutes;
+
+    @Value("${banking.transfer.pipeline.status-max-size:100000}")
+    private long statusMaxSize;
+
+    @Value("${banking.transfer.pipeline.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    public enum State { QUEUED, COMPLETED, FAILED }
+
+    public record TransferStatus(
+            String transferId,
+            Long ownerUserId,
+            String fromAccount,
+            String toAccount,
+            BigDecimal amount,
+            State state,
+            String message,
+            LocalDateTime acceptedAt,
+            LocalDateTime finishedAt) {
+
+        TransferStatus finish(State state, String message) {
+            return new TransferStatus(transferId, ownerUserId, fromAccount, toAccount, amount,
+                    state, message, acceptedAt, LocalDateTime.now());
+        }
+    }
+
+    private record Queued(String transferId, TransferOrder order) {}
+
+    private final List<BlockingQueue<Queued>> queues = new ArrayList<>();
+    private final List<Thread> writers = new ArrayList<>();
+    private volatile boolean running;
+
+    private Cache<String, TransferStatus> statuses;
+
+    @PostConstruct
+    void init() {
+        statuses = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(statusTtlMinutes))
+                .maximumSize(statusMaxSize)
+                .build();
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < partitions; i++) {
+            BlockingQueue<Queued> queue = new ArrayBlockingQueue<>(queueCapacity);
+            Thread writer = new Thread(() -> drain(queue), "transfer-writer-" + i);
+            writer.setDaemon(true);
+            queues.add(queue);
+            writers.add(writer);
+            writer.start();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMs);
+        for (Thread writer : writers) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            writer.join(Math.max(1, remaining));
+            writer.interrupt();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public TransferStatus submit(TransferOrder order) {
+        if (!enabled || !running) {
+            throw new RuntimeException("Asynchronous transfers are not enabled");
+        }
+        String transferId = UUID.randomUUID().toString();
+        TransferStatus status = new TransferStatus(transferId, order.ownerUserId(),
+                order.fromAccount(), order.toAccount(), order.amount(),
+                State.QUEUED, null, LocalDateTime.now(), null);
+        statuses.put(transferId, status);
+
+        BlockingQueue<Queued> queue =
+                queues.get(Math.floorMod(order.fromAccount().hashCode(), partitions));
+        if (!queue.offer(new Queued(transferId, order))) {
+            statuses.invalidate(transferId);
+            throw new RuntimeException("Too many transfers queued, please retry");
+        }
+        return status;
+    }
+
+    public Optional<TransferStatus> getStatus(String transferId) {
+        return Optional.ofNullable(statuses.getIfPresent(transferId));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("partitions", queues.size());
+        stats.put("queued", queues.stream().mapToInt(BlockingQueue::size).sum());
+        return stats;
+    }
+
+    private void drain(BlockingQueue<Queued> queue) {
+        List<Queued> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Queued first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                execute(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // never let one batch stop the partition's writer
+                for (Queued queued : batch) {
+                    finish(queued.transferId(), State.FAILED, e.getMessage());
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void execute(List<Queued> batch) {
+        if (batch.size() > 1) {
+            try {
+                transferEngine.transferBatch(batch.stream().map(Queued::order).toList());
+                for (Queued queued : batch) {
+                    finish(queued.transferId(), State.COMPLETED, null);
+                }
+                return;
+            } catch (RuntimeException e) {
+                transferMetrics.recordBatchFallback();
+            }
+        }
+        for (Queued queued : batch) {
+            TransferOrder order = queued.order();
+            try {
+                transferEngine.transfer(order.fromAccount(), order.toAccount(), order.amount(),
+                        order.ownerUserId());
+                finish(queued.transferId(), State.COMPLETED, null);
+            } catch (RuntimeException e) {
+                finish(queued.transferId(), State.FAILED, e.getMessage());
+            }
+        }
+    }
+
+    private void finish(String transferId, State state, String message) {
+        statuses.asMap().computeIfPresent(transferId, (id, status) ->
+                status.state() == State.QUEUED ? status.finish(state, message) : status);
+    }
+}
@@ -5,8 +5,10 @@ import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.banking.dto.UserSummary;
 import com.banking.model.User;
 import com.banking.repository.UserRepository;
 
@@ -17,6 +19,12 @@ public class UserService {
 	@Autowired
 	private UserRepository userRepository;
 	
+	@Autowired
+	private PasswordHasher passwordHasher;
+	
+	// Methods that hash run without a surrounding transaction so a pooled
+	// connection is not held while the hasher works
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public User createUser(User user) {
 		user.setRole(user.getRole().toUpperCase());
 		if (userRepository.existsByUsername(user.getUsername())) {
@@ -31,11 +39,13 @@ public class UserService {
 		if (user.getStatus()==null || user.getStatus().isEmpty()) {
 			user.setStatus("ACTIVE");
 		}
+		user.setPasswordHash(passwordHasher.hash(user.getPasswordHash()));
 		return userRepository.save(user);
 	}
 	
-	public List<User> getAllUsers(){
-		return userRepository.findAll();
+	@Transactional(readOnly = true)
+	public List<UserSummary> getAllUsers(){
+		return userRepository.findAllSummaries();
 	}
 	
 	public Optional<User> getUserById(Long userId){
@@ -50,8 +60,9 @@ public class UserService {
 		return userRepository.findByEmail(email);
 	}
 	
-	public List<User> getUsersByRole(String role){
-		return userRepository.findByRole(role);
+	@Transactional(readOnly = true)
+	public List<UserSummary> getUsersByRole(String role){
+		return userRepository.findSummariesByRole(role);
 	}
 	
 	public List<User> getUsersByStatus(String status){
@@ -77,11 +88,12 @@ public class UserService {
 		return userRepository.save(user);
 	}
 	
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public User updatePassword(Long userId, String newPassword) {
 		User user = userRepository.findById(userId)
 				.orElseThrow(() -> new RuntimeException("User not found with id: "+userId));
 		
-		user.setPasswordHash(newPassword);
+		user.setPasswordHash(passwordHasher.hash(newPassword));
 		return userRepository.save(user);
 	}
 	
@@ -99,15 +111,27 @@ public class UserService {
 		userRepository.deleteById(userId);
 	}
 	
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public User login(String username, String password) {
-		User user = userRepository.findByUsername(username)
-				.orElseThrow(() -> new RuntimeException("Invalid username or password"));
-		if (!user.getPasswordHash().equals(password)) {
-			throw new RuntimeException("Inavalid username or password");
+		User user = userRepository.findByUsername(username).orElse(null);
+		// An unknown username costs the same hash check and gets the same
+		// message as a wrong password, so neither tells whether it exists
+		if (user == null) {
+			passwordHasher.matchDummy(password);
+			throw new RuntimeException("Invalid username or password");
+		}
+		if (!passwordHasher.matches(password, user.getPasswordHash())) {
+			throw new RuntimeException("Invalid username or password");
 		}
 		if(!"ACTIVE".equals(user.getStatus())) {
 			throw new RuntimeException("Account is "+user.getStatus().toLowerCase()+". Please contact administrator.");
 		}
+		// Plain legacy passwords and hashes below the current cost are
+		// upgraded while the plain password is at hand
+		if (passwordHasher.needsRehash(user.getPasswordHash())) {
+			user.setPasswordHash(passwordHasher.hash(password));
+			user = userRepository.save(user);
+		}
 		return user;
 	}
 	
@@ -0,0 +1,19 @@
+-- Commit-ordered position of each change_events row in the feed.
+--
+-- event_id is taken at insert, so a transaction that stays open can commit
+-- an event below ids consumers have already paged past. sequence_no is
+-- stamped by ChangeFeedService's relay after the row has committed, under
+-- the 'change_events' counter row lock, so it only grows in commit order.
+-- Consumers page on sequence_no; NULL means not yet published.
+
+ALTER TABLE change_events ADD COLUMN sequence_no BIGINT NULL;
+
+-- rows written before this migration keep their event_id as the cursor
+UPDATE change_events SET sequence_no = event_id;
+
+-- feed pages (sequence_no > ?) and the relay's scan for NULL rows
+CREATE INDEX idx_change_events_sequence ON change_events (sequence_no, event_id);
+
+-- next_val = last sequence number handed out
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'change_events', COALESCE(MAX(event_id), 0) FROM change_events;
@@ -0,0 +1,5 @@
+-- Optimistic-lock counter for banking.transfer.lock-mode=OPTIMISTIC.
+-- V1 is the schema already in production and must not change; columns
+-- the application adds later arrive as ALTERs like this one.
+
+ALTER TABLE accounts ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
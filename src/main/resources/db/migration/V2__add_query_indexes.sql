@@ -0,0 +1,18 @@
+-- Indexes backing the repository queries; RepositoryIndexCoverageTest
+-- fails when a query method has no index leading with its predicate columns.
+
+-- history pages: findByAccountNumberOrderByTransactionTimeDesc[TransactionIdDesc],
+-- findByAccountNumberAndTransactionTimeBetween
+CREATE INDEX idx_transactions_account_time
+    ON transactions (account_number, transaction_time DESC, transaction_id DESC);
+
+-- received money: findByAccountNumberAndTransactionTypeOrderByTransactionTimeDesc...
+CREATE INDEX idx_transactions_account_type_time
+    ON transactions (account_number, transaction_type, transaction_time DESC, transaction_id DESC);
+
+CREATE INDEX idx_accounts_user ON accounts (user_id);
+CREATE INDEX idx_accounts_status ON accounts (status);
+CREATE INDEX idx_accounts_type ON accounts (account_type);
+
+CREATE INDEX idx_users_role ON users (role);
+CREATE INDEX idx_users_status ON users (status);
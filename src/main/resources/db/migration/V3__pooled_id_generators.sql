@@ -0,0 +1,16 @@
+-- Backing table for the pooled @TableGenerator ids of transactions and users.
+-- Hibernate's pooled optimizer hands out (next_val - allocationSize, next_val],
+-- so seeding at MAX(id) + 100 keeps the first block clear of existing rows
+-- for any allocationSize up to 100.
+
+CREATE TABLE id_generators (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val      BIGINT,
+    PRIMARY KEY (sequence_name)
+);
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'transactions', COALESCE(MAX(transaction_id), 0) + 100 FROM transactions;
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'users', COALESCE(MAX(user_id), 0) + 100 FROM users;
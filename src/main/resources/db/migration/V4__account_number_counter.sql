@@ -0,0 +1,4 @@
+-- Counter for AccountNumberAllocator. New numbers are ACC + 10 digit serial
+-- + check digit (11 digits), so they can never collide with the legacy
+-- random ACC + 10 digit numbers.
+INSERT INTO id_generators (sequence_name, next_val) VALUES ('account_numbers', 1000000000);
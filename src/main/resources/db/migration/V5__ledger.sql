@@ -0,0 +1,31 @@
+-- Append-only double-entry journal used by banking.transfer.lock-mode=LEDGER.
+-- Account.balance is the last checkpoint; current balance = balance + SUM of
+-- the account's entries whose checkpoint_id is still NULL.
+
+CREATE TABLE ledger_entries (
+    entry_id       BIGINT         NOT NULL,
+    journal_id     VARCHAR(36)    NOT NULL,
+    account_number VARCHAR(255)   NOT NULL,
+    entry_type     VARCHAR(255)   NOT NULL,
+    amount         DECIMAL(15, 2) NOT NULL,
+    created_at     DATETIME(6)    NOT NULL,
+    checkpoint_id  BIGINT,
+    PRIMARY KEY (entry_id)
+);
+
+-- pending delta of one account, and claiming it at checkpoint time
+CREATE INDEX idx_ledger_account_checkpoint ON ledger_entries (account_number, checkpoint_id);
+-- accounts with pending entries, and the sum of one checkpoint
+CREATE INDEX idx_ledger_checkpoint_account ON ledger_entries (checkpoint_id, account_number);
+
+CREATE TABLE ledger_checkpoints (
+    checkpoint_id  BIGINT         NOT NULL,
+    account_number VARCHAR(255)   NOT NULL,
+    entry_count    INT            NOT NULL,
+    folded_amount  DECIMAL(15, 2) NOT NULL,
+    created_at     DATETIME(6)    NOT NULL,
+    PRIMARY KEY (checkpoint_id)
+);
+
+INSERT INTO id_generators (sequence_name, next_val) VALUES ('ledger_entries', 100);
+INSERT INTO id_generators (sequence_name, next_val) VALUES ('ledger_checkpoints', 100);
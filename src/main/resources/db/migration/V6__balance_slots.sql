@@ -0,0 +1,12 @@
+-- Opt-in sharded sub-balances for hot accounts. With balance_slots = N > 0
+-- credits are spread over N rows of account_balance_slots and the account's
+-- total is accounts.balance + SUM(account_balance_slots.balance).
+
+ALTER TABLE accounts ADD COLUMN balance_slots INT NOT NULL DEFAULT 0;
+
+CREATE TABLE account_balance_slots (
+    account_number VARCHAR(255)   NOT NULL,
+    slot_no        INT            NOT NULL,
+    balance        DECIMAL(15, 2) NOT NULL,
+    PRIMARY KEY (account_number, slot_no)
+);
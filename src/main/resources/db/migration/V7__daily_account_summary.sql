@@ -0,0 +1,26 @@
+-- Per account, per day transfer totals. Kept current by every transfer;
+-- range analytics read one row per day (per slot for sharded accounts).
+
+CREATE TABLE daily_account_summary (
+    account_number VARCHAR(255)   NOT NULL,
+    summary_date   DATE           NOT NULL,
+    slot_no        INT            NOT NULL,
+    money_in       DECIMAL(19, 2) NOT NULL,
+    money_out      DECIMAL(19, 2) NOT NULL,
+    in_count       BIGINT         NOT NULL,
+    out_count      BIGINT         NOT NULL,
+    PRIMARY KEY (account_number, summary_date, slot_no)
+);
+
+-- Backfill from the existing history
+INSERT INTO daily_account_summary
+    (account_number, summary_date, slot_no, money_in, money_out, in_count, out_count)
+SELECT account_number,
+       CAST(transaction_time AS DATE),
+       0,
+       COALESCE(SUM(CASE WHEN transaction_type = 'TRANSFER_IN' THEN amount END), 0),
+       COALESCE(SUM(CASE WHEN transaction_type = 'TRANSFER_OUT' THEN amount END), 0),
+       SUM(CASE WHEN transaction_type = 'TRANSFER_IN' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN transaction_type = 'TRANSFER_OUT' THEN 1 ELSE 0 END)
+FROM transactions
+GROUP BY account_number, CAST(transaction_time AS DATE);
@@ -0,0 +1,16 @@
+-- Responses of transfers made with an Idempotency-Key header. A row is
+-- inserted inside the transfer's own transaction, so it exists exactly when
+-- the transfer committed; retries with the same key replay response_body.
+
+CREATE TABLE idempotency_keys (
+    user_id             BIGINT        NOT NULL,
+    idempotency_key     VARCHAR(100)  NOT NULL,
+    request_fingerprint VARCHAR(600)  NOT NULL,
+    response_body       VARCHAR(2000) NOT NULL,
+    created_at          DATETIME(6)   NOT NULL,
+    expires_at          DATETIME(6)   NOT NULL,
+    PRIMARY KEY (user_id, idempotency_key)
+);
+
+-- purge of expired keys
+CREATE INDEX idx_idempotency_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,18 @@
+-- Transactional outbox behind GET /api/changes. Rows are written in the
+-- same transaction as the change they describe.
+--
+-- event_id is AUTO_INCREMENT rather than a pooled id_generators block:
+-- consumers resume from the last event_id they saw, which needs ids that
+-- grow in insert order across all nodes.
+
+CREATE TABLE change_events (
+    event_id     BIGINT        NOT NULL AUTO_INCREMENT,
+    event_type   VARCHAR(40)   NOT NULL,
+    aggregate_id VARCHAR(255)  NOT NULL,
+    payload      VARCHAR(2000) NOT NULL,
+    created_at   DATETIME(6)   NOT NULL,
+    PRIMARY KEY (event_id)
+);
+
+-- retention purge
+CREATE INDEX idx_change_events_created_at ON change_events (created_at);
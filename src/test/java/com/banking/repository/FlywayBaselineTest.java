@@ -0,0 +1,63 @@
+package com.banking.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.banking.model.Account;
+
+// A production database created by ddl-auto=update has no flyway history:
+// it is baselined at V1 and must reach a schema that ddl-auto=validate
+// accepts through V2 onwards alone. The context failing to start means a
+// migration still relies on something only a fresh V1 would create.
+@SpringBootTest
+class FlywayBaselineTest {
+
+	private static final String URL = "jdbc:h2:mem:baselined;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+			+ "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+	@DynamicPropertySource
+	static void preFlywayDatabase(DynamicPropertyRegistry registry) throws Exception {
+		try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+				Statement statement = connection.createStatement()) {
+			ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/pre-flyway-schema.sql"));
+			statement.executeUpdate("INSERT INTO users (first_name, last_name, username, password_hash, email,"
+					+ " phone, role, status, created_at, updated_at) VALUES ('Old', 'Customer', 'old.customer',"
+					+ " 'x', 'old@example.com', '9000000000', 'CUSTOMER', 'ACTIVE', NOW(), NOW())");
+			statement.executeUpdate("INSERT INTO accounts (account_number, user_id, account_type, balance,"
+					+ " currency, opened_at, status) VALUES ('ACC-OLD-1', 1, 'SAVINGS', 250.00, 'INR', NOW(), 'ACTIVE')");
+		}
+		registry.add("spring.datasource.url", () -> URL);
+	}
+
+	@Autowired
+	private Flyway flyway;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Test
+	void preFlywaySchemaIsBaselinedAndMigrated() {
+		MigrationInfo[] applied = flyway.info().applied();
+		assertThat(applied[0].getType().isBaseline()).isTrue();
+		assertThat(applied[0].getVersion().getVersion()).isEqualTo("1");
+		assertThat(flyway.info().pending()).isEmpty();
+
+		Account existing = accountRepository.findByAccountNumber("ACC-OLD-1").orElseThrow();
+		assertThat(existing.getBalance()).isEqualByComparingTo(new BigDecimal("250.00"));
+		assertThat(existing.getVersion()).isZero();
+	}
+}
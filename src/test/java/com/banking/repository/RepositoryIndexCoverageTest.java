@@ -0,0 +1,136 @@
+package com.banking.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.data.repository.support.Repositories;
+
+import jakarta.persistence.Table;
+
+// Every repository query must be able to start from an index: its equality
+// columns have to form the leading columns of some index (or the primary key)
+// created by the Flyway migrations. Add the index in a new migration when
+// this fails for a new query method.
+@SpringBootTest
+class RepositoryIndexCoverageTest {
+
+	private static final Pattern FIRST_JPQL_PREDICATE =
+			Pattern.compile("(?i)\\bwhere\\s+\\(?\\s*\\w+\\.(\\w+)");
+
+	@Autowired
+	private ApplicationContext applicationContext;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Test
+	void everyQueryMethodHasASupportingIndex() throws Exception {
+		Repositories repositories = new Repositories(applicationContext);
+		List<String> missing = new ArrayList<>();
+
+		try (Connection connection = dataSource.getConnection()) {
+			DatabaseMetaData metaData = connection.getMetaData();
+
+			for (Class<?> domainType : repositories) {
+				RepositoryInformation information =
+						repositories.getRequiredRepositoryInformation(domainType);
+				String table = domainType.getAnnotation(Table.class).name();
+				List<List<String>> indexes = indexesOf(metaData, table);
+
+				for (Method method : information.getQueryMethods()) {
+					Set<String> leading = leadingColumns(method, domainType);
+					if (leading.isEmpty()) {
+						continue;
+					}
+					boolean covered = indexes.stream().anyMatch(index ->
+							index.size() >= leading.size()
+							&& new HashSet<>(index.subList(0, leading.size())).equals(leading));
+					if (!covered) {
+						missing.add(information.getRepositoryInterface().getSimpleName()
+								+ "." + method.getName() + " needs an index on " + table + leading);
+					}
+				}
+			}
+		}
+
+		assertThat(missing).isEmpty();
+	}
+
+	private Set<String> leadingColumns(Method method, Class<?> domainType) {
+		Set<String> columns = new LinkedHashSet<>();
+
+		Query query = method.getAnnotation(Query.class);
+		if (query != null) {
+			Matcher matcher = FIRST_JPQL_PREDICATE.matcher(query.value());
+			if (matcher.find()) {
+				columns.add(toColumn(matcher.group(1)));
+			}
+			return columns;
+		}
+
+		PartTree tree = new PartTree(method.getName(), domainType);
+		Part firstRange = null;
+		for (Part part : tree.getParts()) {
+			if (part.getType() == Part.Type.SIMPLE_PROPERTY) {
+				columns.add(toColumn(part.getProperty().getSegment()));
+			} else if (firstRange == null) {
+				firstRange = part;
+			}
+		}
+		if (columns.isEmpty() && firstRange != null) {
+			columns.add(toColumn(firstRange.getProperty().getSegment()));
+		}
+		return columns;
+	}
+
+	private List<List<String>> indexesOf(DatabaseMetaData metaData, String table) throws Exception {
+		Map<String, TreeMap<Short, String>> byName = new TreeMap<>();
+		try (ResultSet rs = metaData.getIndexInfo(null, null, table, false, false)) {
+			while (rs.next()) {
+				String name = rs.getString("INDEX_NAME");
+				String column = rs.getString("COLUMN_NAME");
+				if (name != null && column != null) {
+					byName.computeIfAbsent(name, n -> new TreeMap<>())
+							.put(rs.getShort("ORDINAL_POSITION"), column.toLowerCase());
+				}
+			}
+		}
+		try (ResultSet rs = metaData.getPrimaryKeys(null, null, table)) {
+			while (rs.next()) {
+				byName.computeIfAbsent("PRIMARY", n -> new TreeMap<>())
+						.put(rs.getShort("KEY_SEQ"), rs.getString("COLUMN_NAME").toLowerCase());
+			}
+		}
+		List<List<String>> indexes = new ArrayList<>();
+		byName.values().forEach(columns -> indexes.add(new ArrayList<>(columns.values())));
+		return indexes;
+	}
+
+	// Same mapping as Spring's default physical naming strategy
+	private String toColumn(String property) {
+		return property.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase();
+	}
+}
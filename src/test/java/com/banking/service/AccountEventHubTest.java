@@ -0,0 +1,201 @@
+package com.banking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class AccountEventHubTest {
+
+	private static final Pattern BALANCE = Pattern.compile("\"balance\":([0-9.]+)");
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private AccountFixtures accountFixtures;
+
+	@Autowired
+	private SessionTokenService sessionTokenService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private TransferEngine transferEngine;
+
+	@Test
+	void committedTransfersArePushedWithTheNewBalance() throws Exception {
+		String sender = accountFixtures.open(7L, "100.00");
+		String receiver = accountFixtures.open(8L, "0.00");
+		String token = sessionTokenService.encode(sessionTokenService.issue(8L, "CUSTOMER"));
+
+		HttpRequest request = HttpRequest.newBuilder(URI.create(
+						"http://localhost:" + port + "/api/accounts/" + receiver + "/events?access_token=" + token))
+				.header("Accept", "text/event-stream")
+				.timeout(Duration.ofSeconds(10))
+				.build();
+		HttpResponse<Stream<String>> response =
+				HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofLines());
+		assertThat(response.statusCode()).isEqualTo(200);
+
+		try (Stream<String> lines = response.body()) {
+			Iterator<String> it = lines.iterator();
+			assertThat(nextData(it, "BALANCE")).contains("\"balance\":0.00");
+
+			transactionService.transferMoney(sender, receiver, new BigDecimal("12.50"));
+
+			String data = nextData(it, "TRANSFER_IN");
+			assertThat(data).contains("\"counterparty\":\"" + sender + "\"");
+			assertThat(data).contains("\"balance\":12.50");
+		}
+	}
+
+	// The receiver only gains, so any balance lower than one already seen
+	// would be a stale one delivered out of order
+	@Test
+	void concurrentTransfersNeverPushAnOlderBalance() throws Exception {
+		String receiver = accountFixtures.open(8L, "0.00");
+		List<String> senders = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			senders.add(accountFixtures.open(7L, "100.00"));
+		}
+		String token = sessionTokenService.encode(sessionTokenService.issue(8L, "CUSTOMER"));
+
+		HttpResponse<Stream<String>> response = HttpClient.newHttpClient().send(
+				HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/accounts/"
+								+ receiver + "/events?access_token=" + token))
+						.header("Accept", "text/event-stream")
+						.timeout(Duration.ofSeconds(20))
+						.build(),
+				HttpResponse.BodyHandlers.ofLines());
+
+		try (Stream<String> lines = response.body()) {
+			Iterator<String> it = lines.iterator();
+			nextData(it, "BALANCE");
+
+			ExecutorService pool = Executors.newFixedThreadPool(senders.size());
+			try {
+				for (String sender : senders) {
+					pool.submit(() -> {
+						for (int i = 0; i < 10; i++) {
+							transactionService.transferMoney(sender, receiver, new BigDecimal("1.00"));
+						}
+						return null;
+					});
+				}
+			} finally {
+				pool.shutdown();
+			}
+
+			BigDecimal newest = BigDecimal.ZERO;
+			for (int i = 0; i < 40; i++) {
+				Matcher balance = BALANCE.matcher(nextData(it, "TRANSFER_IN"));
+				if (balance.find()) {
+					BigDecimal value = new BigDecimal(balance.group(1));
+					assertThat(value).isGreaterThan(newest);
+					newest = value;
+				}
+			}
+		}
+	}
+
+	// Both orders of one batch run in one persistence context; the second
+	// must not report the balance the first one read
+	@Test
+	void batchedTransfersPushEachBalance() throws Exception {
+		String sender = accountFixtures.open(7L, "100.00");
+		String receiver = accountFixtures.open(8L, "0.00");
+		String token = sessionTokenService.encode(sessionTokenService.issue(7L, "CUSTOMER"));
+
+		HttpResponse<Stream<String>> response = HttpClient.newHttpClient().send(
+				HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/accounts/"
+								+ sender + "/events?access_token=" + token))
+						.header("Accept", "text/event-stream")
+						.timeout(Duration.ofSeconds(10))
+						.build(),
+				HttpResponse.BodyHandlers.ofLines());
+
+		try (Stream<String> lines = response.body()) {
+			Iterator<String> it = lines.iterator();
+			nextData(it, "BALANCE");
+
+			transferEngine.transferBatch(List.of(
+					new TransferOrder(sender, receiver, new BigDecimal("10.00"), 7L),
+					new TransferOrder(sender, receiver, new BigDecimal("15.00"), 7L)));
+
+			assertThat(nextData(it, "TRANSFER_OUT")).contains("\"balance\":90.00");
+			assertThat(nextData(it, "TRANSFER_OUT")).contains("\"balance\":75.00");
+		}
+	}
+
+	@Test
+	void otherCustomersCannotSubscribe() throws Exception {
+		String account = accountFixtures.open(7L, "1.00");
+		String token = sessionTokenService.encode(sessionTokenService.issue(9L, "CUSTOMER"));
+
+		HttpResponse<String> response = HttpClient.newHttpClient().send(
+				HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/accounts/"
+						+ account + "/events?access_token=" + token)).build(),
+				HttpResponse.BodyHandlers.ofString());
+		assertThat(response.statusCode()).isEqualTo(403);
+	}
+
+	@Test
+	void streamsOverTheLimitAreRefusedAsUnavailable() throws Exception {
+		String account = accountFixtures.open(8L, "1.00");
+		String token = sessionTokenService.encode(sessionTokenService.issue(8L, "CUSTOMER"));
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+						+ "/api/accounts/" + account + "/events?access_token=" + token))
+				.header("Accept", "text/event-stream")
+				.build();
+
+		List<Stream<String>> open = new ArrayList<>();
+		try {
+			for (int i = 0; i < 5; i++) {
+				HttpResponse<Stream<String>> response =
+						HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofLines());
+				assertThat(response.statusCode()).isEqualTo(200);
+				open.add(response.body());
+			}
+			HttpResponse<String> refused =
+					HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+			assertThat(refused.statusCode()).isEqualTo(503);
+			assertThat(refused.headers().firstValue("Retry-After")).isPresent();
+		} finally {
+			open.forEach(Stream::close);
+		}
+	}
+
+	// data line of the next event with the given name
+	private String nextData(Iterator<String> lines, String event) {
+		boolean matched = false;
+		while (lines.hasNext()) {
+			String line = lines.next();
+			if (line.startsWith("event:")) {
+				matched = line.substring("event:".length()).trim().equals(event);
+			} else if (matched && line.startsWith("data:")) {
+				return line.substring("data:".length());
+			}
+		}
+		throw new AssertionError("stream ended before " + event);
+	}
+}
@@ -0,0 +1,32 @@
+package com.banking.service;
+
+import java.math.BigDecimal;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.banking.model.Account;
+import com.banking.repository.AccountRepository;
+
+// Active INR savings accounts for the service tests, saved directly with a
+// fresh account number. Picked up by component scanning like any bean.
+@Component
+class AccountFixtures {
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private AccountNumberAllocator accountNumberAllocator;
+
+	String open(String balance) {
+		return open(1L, balance);
+	}
+
+	String open(Long userId, String balance) {
+		Account account = new Account(accountNumberAllocator.next(), userId, "SAVINGS", new BigDecimal(balance));
+		account.setStatus("ACTIVE");
+		account.setCurrency("INR");
+		return accountRepository.save(account).getAccountNumber();
+	}
+}
@@ -0,0 +1,40 @@
+package com.banking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class AccountNumberAllocatorTest {
+
+	@Test
+	void issuedNumbersCarryAValidCheckDigit() {
+		for (long serial = 1_000_000_000L; serial < 1_000_001_000L; serial++) {
+			String number = AccountNumberAllocator.format(serial);
+			assertThat(number).hasSize(14).startsWith("ACC");
+			assertThat(AccountNumberAllocator.isWellFormed(number)).isTrue();
+		}
+	}
+
+	@Test
+	void singleDigitTyposAreRejected() {
+		String number = AccountNumberAllocator.format(1_000_004_321L);
+		for (int i = 3; i < number.length(); i++) {
+			for (char c = '0'; c <= '9'; c++) {
+				if (c == number.charAt(i)) {
+					continue;
+				}
+				String typo = number.substring(0, i) + c + number.substring(i + 1);
+				assertThat(AccountNumberAllocator.isWellFormed(typo)).as(typo).isFalse();
+			}
+		}
+	}
+
+	@Test
+	void legacyNumbersAreAcceptedAndGarbageIsNot() {
+		assertThat(AccountNumberAllocator.isWellFormed("ACC0123456789")).isTrue();
+		assertThat(AccountNumberAllocator.isWellFormed("ACC012345678")).isFalse();
+		assertThat(AccountNumberAllocator.isWellFormed("ACC01234X6789")).isFalse();
+		assertThat(AccountNumberAllocator.isWellFormed("XYZ0123456789")).isFalse();
+		assertThat(AccountNumberAllocator.isWellFormed(null)).isFalse();
+	}
+}
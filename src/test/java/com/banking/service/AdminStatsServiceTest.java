@@ -0,0 +1,45 @@
+package com.banking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.banking.model.Account;
+import com.banking.repository.AccountRepository;
+
+@SpringBootTest(properties = "banking.admin-stats.refresh-seconds=3600")
+class AdminStatsServiceTest {
+
+	@Autowired
+	private AdminStatsService adminStatsService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private AccountNumberAllocator accountNumberAllocator;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void statsAreAggregatedOnceAndShared() {
+		Account account = new Account(accountNumberAllocator.next(), 1L, "STATS_TEST", new BigDecimal("12.34"));
+		account.setStatus("ACTIVE");
+		account.setCurrency("XTS");
+		accountRepository.save(account);
+
+		Map<String, Object> stats = adminStatsService.getStats();
+
+		Map<String, Map<String, BigDecimal>> balances =
+				(Map<String, Map<String, BigDecimal>>) stats.get("balancesByCurrencyAndType");
+		assertThat(balances.get("XTS").get("STATS_TEST")).isEqualByComparingTo("12.34");
+		Map<String, Object> accounts = (Map<String, Object>) stats.get("accounts");
+		assertThat((Map<String, Long>) accounts.get("byType")).containsEntry("STATS_TEST", 1L);
+
+		assertThat(adminStatsService.getStats()).isSameAs(stats);
+	}
+}
@@ -0,0 +1,8 @@
+package com.banking.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+// ATOMIC is the default mode, so this shares the default test context
+@SpringBootTest
+class AtomicTransferTortureTest extends TransferTortureTest {
+}
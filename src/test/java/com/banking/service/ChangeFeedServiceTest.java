@@ -0,0 +1,121 @@
+package com.banking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banking.model.ChangeEvent;
+
+@SpringBootTest
+class ChangeFeedServiceTest {
+
+	@Autowired
+	private AccountFixtures accountFixtures;
+
+	@Autowired
+	private ChangeFeedService changeFeedService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private TransferEngine transferEngine;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void committedChangesArePagedInOrder() {
+		long start = drain(0, new ArrayList<>());
+		String a = accountFixtures.open("100.00");
+		String b = accountFixtures.open("0.00");
+
+		transactionService.transferMoney(a, b, new BigDecimal("10.00"));
+		try {
+			transactionService.transferMoney(a, b, new BigDecimal("500.00"));
+		} catch (RuntimeException expected) {
+			// rolled back, so not in the feed
+		}
+		accountService.updateAccountStatus(a, "FROZEN");
+
+		List<ChangeEvent> events = new ArrayList<>();
+		long cursor = drain(start, events);
+
+		List<ChangeEvent> mine = events.stream()
+				.filter(e -> e.getAggregateId().equals(a) || e.getAggregateId().equals(b))
+				.toList();
+		assertThat(mine).extracting(ChangeEvent::getEventType).containsExactly(
+				ChangeFeedService.TRANSACTION_CREATED,
+				ChangeFeedService.TRANSACTION_CREATED,
+				ChangeFeedService.ACCOUNT_STATUS_CHANGED);
+		assertThat(mine.get(0).getPayload()).contains("\"transactionType\":\"TRANSFER_OUT\"");
+		assertThat(mine.get(2).getPayload()).contains("\"previousStatus\":\"ACTIVE\"", "\"status\":\"FROZEN\"");
+		assertThat(changeFeedService.getChanges(cursor, 10).get("events")).isEqualTo(List.of());
+	}
+
+	// A transfer that inserts its events first but commits last still shows
+	// up after the cursor has moved past the other transfer's events
+	@Test
+	void eventCommittedAfterLaterIdsIsNotSkipped() throws Exception {
+		String a = accountFixtures.open("100.00");
+		String b = accountFixtures.open("0.00");
+		String c = accountFixtures.open("100.00");
+		String d = accountFixtures.open("0.00");
+		long cursor = drain(0, new ArrayList<>());
+
+		CountDownLatch inserted = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread slow = new Thread(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			transferEngine.transfer(a, b, new BigDecimal("1.00"), null);
+			inserted.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+		}));
+		slow.start();
+		assertThat(inserted.await(10, TimeUnit.SECONDS)).isTrue();
+
+		transactionService.transferMoney(c, d, new BigDecimal("1.00"));
+		List<ChangeEvent> first = new ArrayList<>();
+		cursor = drain(cursor, first);
+		assertThat(first).extracting(ChangeEvent::getAggregateId).contains(c, d).doesNotContain(a, b);
+
+		release.countDown();
+		slow.join(10_000);
+		List<ChangeEvent> second = new ArrayList<>();
+		drain(cursor, second);
+		assertThat(second).extracting(ChangeEvent::getAggregateId).contains(a, b);
+		assertThat(second.get(0).getEventId()).isLessThan(first.get(first.size() - 1).getEventId());
+	}
+
+	// publishes pending events, then pages from since to the end
+	@SuppressWarnings("unchecked")
+	private long drain(long since, List<ChangeEvent> events) {
+		changeFeedService.relayPending();
+		long cursor = since;
+		boolean more = true;
+		while (more) {
+			Map<String, Object> page = changeFeedService.getChanges(cursor, 2);
+			events.addAll((List<ChangeEvent>) page.get("events"));
+			cursor = (Long) page.get("nextCursor");
+			more = (Boolean) page.get("hasMore");
+		}
+		return cursor;
+	}
+}
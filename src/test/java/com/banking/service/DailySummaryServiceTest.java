@@ -0,0 +1,60 @@
+package com.banking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.banking.dto.DailySummary;
+
+@SpringBootTest
+class DailySummaryServiceTest {
+
+	@Autowired
+	private AccountFixtures accountFixtures;
+
+	@Autowired
+	private DailySummaryService dailySummaryService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void transfersAreRolledUpPerAccountAndDay() {
+		String a = accountFixtures.open("100.00");
+		String b = accountFixtures.open("100.00");
+		accountService.updateBalanceSlots(b, 3);
+
+		transactionService.transferMoney(a, b, new BigDecimal("10.00"));
+		transactionService.transferMoney(a, b, new BigDecimal("5.00"));
+		transactionService.transferMoney(b, a, new BigDecimal("2.50"));
+
+		LocalDate today = LocalDate.now();
+		Map<String, Object> summaryA = dailySummaryService.getDailySummary(a, today.minusDays(7), today);
+		Map<String, Object> summaryB = dailySummaryService.getDailySummary(b, today.minusDays(7), today);
+
+		List<DailySummary> daysB = (List<DailySummary>) summaryB.get("days");
+		assertThat(daysB).hasSize(1);
+		assertThat(daysB.get(0).moneyIn()).isEqualByComparingTo("15.00");
+		assertThat(daysB.get(0).moneyOut()).isEqualByComparingTo("2.50");
+		assertThat(daysB.get(0).inCount()).isEqualTo(2);
+		assertThat(daysB.get(0).outCount()).isEqualTo(1);
+
+		DailySummary totalsA = (DailySummary) summaryA.get("totals");
+		assertThat(totalsA.net()).isEqualByComparingTo("-12.50");
+		assertThat(totalsA.outCount()).isEqualTo(2);
+
+		assertThat((List<DailySummary>) dailySummaryService
+				.getDailySummary(a, today.minusDays(7), today.minusDays(1)).get("days")).isEmpty();
+	}
+}
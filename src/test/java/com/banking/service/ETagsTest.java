@@ -0,0 +1,47 @@
+package com.banking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class ETagsTest {
+
+	@Autowired
+	private AccountFixtures accountFixtures;
+
+	@Autowired
+	private ETags eTags;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Test
+	void tagsChangeOnlyWhenTheAccountChanges() {
+		String a = accountFixtures.open("100.00");
+		String b = accountFixtures.open("100.00");
+
+		String history = eTags.forHistory(a, "account", null, 50);
+		String account = eTags.forAccount(accountService.getAccountSnapshot(a).orElseThrow());
+		assertThat(eTags.forHistory(a, "account", null, 50)).isEqualTo(history);
+		assertThat(eTags.forHistory(a, "account", null, 20)).isNotEqualTo(history);
+		assertThat(eTags.forHistory(a, "received", null, 50)).isNotEqualTo(history);
+
+		transactionService.transferMoney(a, b, new BigDecimal("10.00"));
+		String afterFirst = eTags.forHistory(a, "account", null, 50);
+		assertThat(afterFirst).isNotEqualTo(history);
+		assertThat(eTags.forAccount(accountService.getAccountSnapshot(a).orElseThrow()))
+				.isNotEqualTo(account);
+
+		// a second transfer on the same day still moves the marker
+		transactionService.transferMoney(b, a, new BigDecimal("1.00"));
+		assertThat(eTags.forHistory(a, "account", null, 50)).isNotEqualTo(afterFirst);
+	}
+}
@@ -0,0 +1,122 @@
+package com.banking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.banking.model.Account;
+import com.banking.model.IdempotencyKey;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.IdempotencyKeyRepository;
+
+@SpringBootTest
+class IdempotencyServiceTest {
+
+	private static final Map<String, Object> RESPONSE =
+			Map.of("success", true, "message", "Transfer Successful");
+
+	@Autowired
+	private AccountFixtures accountFixtures;
+
+	@Autowired
+	private IdempotencyService idempotencyService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private IdempotencyKeyRepository idempotencyKeyRepository;
+
+	@Test
+	void retriesReplayTheFirstResponse() {
+		String a = accountFixtures.open("100.00");
+		String b = accountFixtures.open("0.00");
+
+		IdempotencyService.Outcome first = transfer(a, b, "10.00", "key-1");
+		IdempotencyService.Outcome retry = transfer(a, b, "10", "key-1");
+
+		assertThat(first.replayed()).isFalse();
+		assertThat(retry.replayed()).isTrue();
+		assertThat(retry.response()).isEqualTo(RESPONSE);
+		assertThat(balance(a)).isEqualByComparingTo("90.00");
+		assertThat(idempotencyKeyRepository.existsById(new IdempotencyKey.KeyId(1L, "key-1"))).isTrue();
+
+		assertThatThrownBy(() -> transfer(a, b, "20.00", "key-1"))
+				.hasMessageContaining("different request");
+	}
+
+	@Test
+	void failedAttemptsCanBeRetriedWithTheSameKey() {
+		String a = accountFixtures.open("5.00");
+		String b = accountFixtures.open("0.00");
+
+		assertThatThrownBy(() -> transfer(a, b, "10.00", "key-2"))
+				.hasMessageContaining("Insufficient balance");
+		assertThat(idempotencyKeyRepository.existsById(new IdempotencyKey.KeyId(1L, "key-2"))).isFalse();
+
+		Account sender = accountRepository.findByAccountNumber(a).orElseThrow();
+		sender.setBalance(new BigDecimal("50.00"));
+		accountRepository.save(sender);
+
+		assertThat(transfer(a, b, "10.00", "key-2").replayed()).isFalse();
+		assertThat(balance(a)).isEqualByComparingTo("40.00");
+	}
+
+	@Test
+	void concurrentDuplicatesRunOnce() throws Exception {
+		String a = accountFixtures.open("100.00");
+		String b = accountFixtures.open("0.00");
+
+		int clients = 8;
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(clients);
+		try {
+			List<Future<IdempotencyService.Outcome>> outcomes = new ArrayList<>();
+			for (int i = 0; i < clients; i++) {
+				outcomes.add(pool.submit(() -> {
+					start.await();
+					return transfer(a, b, "10.00", "key-3");
+				}));
+			}
+			start.countDown();
+			int executed = 0;
+			for (Future<IdempotencyService.Outcome> outcome : outcomes) {
+				if (!outcome.get().replayed()) {
+					executed++;
+				}
+			}
+			assertThat(executed).isEqualTo(1);
+		} finally {
+			pool.shutdownNow();
+		}
+		assertThat(balance(a)).isEqualByComparingTo("90.00");
+		assertThat(balance(b)).isEqualByComparingTo("10.00");
+	}
+
+	private IdempotencyService.Outcome transfer(String from, String to, String amount, String key) {
+		BigDecimal value = new BigDecimal(amount);
+		return idempotencyService.execute(1L, key,
+				IdempotencyService.fingerprint(from, to, value.stripTrailingZeros().toPlainString()),
+				RESPONSE,
+				record -> transactionService.transferMoney(from, to, value, null, record));
+	}
+
+	private BigDecimal balance(String accountNumber) {
+		return accountRepository.findByAccountNumber(accountNumber).orElseThrow().getBalance();
+	}
+}
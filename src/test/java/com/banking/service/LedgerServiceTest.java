@@ -0,0 +1,108 @@
+package com.banking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.banking.repository.AccountRepository;
+
+@SpringBootTest(properties = {
+		"banking.transfer.lock-mode=LEDGER",
+		"banking.ledger.checkpoint-interval-ms=3600000"
+})
+class LedgerServiceTest {
+
+	@Autowired
+	private AccountFixtures accountFixtures;
+
+	@Autowired
+	private LedgerService ledgerService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private TransferEngine transferEngine;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Test
+	void transfersAppendEntriesAndCheckpointsFoldThem() {
+		String from = accountFixtures.open("100.00");
+		String to = accountFixtures.open("0.00");
+
+		transactionService.transferMoney(from, to, new BigDecimal("30.00"));
+		transactionService.transferMoney(from, to, new BigDecimal("20.00"));
+
+		// snapshots untouched, reads include the pending delta
+		assertThat(accountRepository.findById(from).orElseThrow().getBalance()).isEqualByComparingTo("100.00");
+		assertThat(balanceOf(from)).isEqualByComparingTo("50.00");
+		assertThat(balanceOf(to)).isEqualByComparingTo("50.00");
+		assertThat(accountService.getAccountsByUserId(1L))
+				.filteredOn(summary -> summary.accountNumber().equals(from))
+				.singleElement()
+				.satisfies(summary -> assertThat(summary.balance()).isEqualByComparingTo("50.00"));
+		assertThat(accountService.getAllAccounts())
+				.filteredOn(summary -> summary.accountNumber().equals(to))
+				.singleElement()
+				.satisfies(summary -> assertThat(summary.balance()).isEqualByComparingTo("50.00"));
+
+		assertThatThrownBy(() -> transactionService.transferMoney(from, to, new BigDecimal("50.01")))
+				.hasMessage("Insufficient balance");
+
+		ledgerService.checkpointPending();
+
+		assertThat(accountRepository.findById(from).orElseThrow().getBalance()).isEqualByComparingTo("50.00");
+		assertThat(accountRepository.findById(to).orElseThrow().getBalance()).isEqualByComparingTo("50.00");
+		assertThat(ledgerService.pendingDelta(from)).isEqualByComparingTo("0");
+		assertThat(balanceOf(from)).isEqualByComparingTo("50.00");
+	}
+
+	@Test
+	void balanceOverrideIsJournaledAsAnAdjustment() {
+		String account = accountFixtures.open("10.00");
+
+		accountService.updateBalance(account, new BigDecimal("25.00"));
+
+		assertThat(accountRepository.findById(account).orElseThrow().getBalance()).isEqualByComparingTo("10.00");
+		assertThat(ledgerService.pendingDelta(account)).isEqualByComparingTo("15.00");
+		assertThat(balanceOf(account)).isEqualByComparingTo("25.00");
+	}
+
+	// The second debit must see the first one's pending entry, which is
+	// still unflushed in the same transaction
+	@Test
+	void batchedDebitsFromOneSenderCannotOverdraw() {
+		String from = accountFixtures.open("100.00");
+		String to = accountFixtures.open("0.00");
+
+		assertThatThrownBy(() -> transferEngine.transferBatch(List.of(
+				new TransferOrder(from, to, new BigDecimal("60.00"), null),
+				new TransferOrder(from, to, new BigDecimal("60.00"), null))))
+				.hasMessage("Insufficient balance");
+
+		assertThat(balanceOf(from)).isEqualByComparingTo("100.00");
+		assertThat(balanceOf(to)).isEqualByComparingTo("0.00");
+		assertThat(ledgerService.pendingDelta(from)).isEqualByComparingTo("0");
+
+		transferEngine.transferBatch(List.of(
+				new TransferOrder(from, to, new BigDecimal("60.00"), null),
+				new TransferOrder(from, to, new BigDecimal("40.00"), null)));
+		assertThat(balanceOf(from)).isEqualByComparingTo("0.00");
+		assertThat(balanceOf(to)).isEqualByComparingTo("100.00");
+	}
+
+	private BigDecimal balanceOf(String accountNumber) {
+		return accountService.getAccountByNumber(accountNumber).orElseThrow().getBalance();
+	}
+}
@@ -0,0 +1,44 @@
+package com.banking.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+// Checkpoints run in a loop alongside the transfers, so entries are folded
+// while new ones are posted. Same properties as LedgerServiceTest, so the
+// context is shared.
+@SpringBootTest(properties = {
+		"banking.transfer.lock-mode=LEDGER",
+		"banking.ledger.checkpoint-interval-ms=3600000"
+})
+class LedgerTransferTortureTest extends TransferTortureTest {
+
+	@Autowired
+	private LedgerService ledgerService;
+
+	private volatile boolean running;
+	private Thread checkpointer;
+
+	@Override
+	protected void prepare(List<String> accounts) {
+		running = true;
+		checkpointer = new Thread(() -> {
+			while (running) {
+				ledgerService.checkpointPending();
+			}
+		}, "torture-checkpointer");
+		checkpointer.start();
+	}
+
+	@Override
+	protected void settle() {
+		running = false;
+		try {
+			checkpointer.join(30_000);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		ledgerService.checkpointPending();
+	}
+}
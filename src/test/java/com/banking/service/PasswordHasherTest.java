@@ -0,0 +1,93 @@
+package com.banking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class PasswordHasherTest {
+
+	private static PasswordHasher hasher(int cost, int threads) {
+		PasswordHasher hasher = new PasswordHasher();
+		ReflectionTestUtils.setField(hasher, "cost", cost);
+		ReflectionTestUtils.setField(hasher, "threads", threads);
+		ReflectionTestUtils.setField(hasher, "queueCapacity", 1024);
+		ReflectionTestUtils.setField(hasher, "timeoutMs", 60_000L);
+		hasher.init();
+		return hasher;
+	}
+
+	@Test
+	void hashesAndMatches() {
+		PasswordHasher hasher = hasher(4, 1);
+		String hash = hasher.hash("s3cret");
+
+		assertThat(hash).startsWith("$2a$04$");
+		assertThat(hasher.matches("s3cret", hash)).isTrue();
+		assertThat(hasher.matches("wrong", hash)).isFalse();
+		assertThat(hasher.needsRehash(hash)).isFalse();
+	}
+
+	@Test
+	void dummyCheckRunsAtTheConfiguredCost() {
+		PasswordHasher hasher = hasher(4, 1);
+		String dummy = (String) ReflectionTestUtils.getField(hasher, "dummyHash");
+
+		assertThat(dummy).startsWith("$2a$04$");
+		hasher.matchDummy("s3cret");
+		hasher.matchDummy(null);
+	}
+
+	@Test
+	void legacyPlainPasswordsMatchAndNeedRehash() {
+		PasswordHasher hasher = hasher(4, 1);
+
+		assertThat(hasher.matches("s3cret", "s3cret")).isTrue();
+		assertThat(hasher.matches("s3cret", "other")).isFalse();
+		assertThat(hasher.needsRehash("s3cret")).isTrue();
+	}
+
+	@Test
+	void raisingTheCostFlagsOldHashes() {
+		String oldHash = hasher(4, 1).hash("s3cret");
+		PasswordHasher stronger = hasher(5, 1);
+
+		assertThat(stronger.matches("s3cret", oldHash)).isTrue();
+		assertThat(stronger.needsRehash(oldHash)).isTrue();
+	}
+
+	// mvn test -Dtest=PasswordHasherTest -Dbenchmark=true [-Dbcrypt.cost=12]
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	void reportsHashesPerSecondPerCore() throws Exception {
+		int cost = Integer.getInteger("bcrypt.cost", 12);
+		int cores = Runtime.getRuntime().availableProcessors();
+		PasswordHasher hasher = hasher(cost, cores);
+		hasher.hash("warm-up");
+
+		AtomicLong hashes = new AtomicLong();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		ExecutorService callers = Executors.newFixedThreadPool(cores);
+		for (int i = 0; i < cores; i++) {
+			callers.execute(() -> {
+				while (System.nanoTime() < deadline) {
+					hasher.hash("benchmark-password");
+					hashes.incrementAndGet();
+				}
+			});
+		}
+		callers.shutdown();
+		callers.awaitTermination(1, TimeUnit.MINUTES);
+
+		double perSecond = hashes.get() / 10.0;
+		System.out.printf("bcrypt cost %d: %.1f hashes/s total, %.2f hashes/s per core (%d cores)%n",
+				cost, perSecond, perSecond / cores, cores);
+		assertThat(hashes.get()).isPositive();
+	}
+}
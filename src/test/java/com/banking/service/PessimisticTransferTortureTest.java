@@ -0,0 +1,7 @@
+package com.banking.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = "banking.transfer.lock-mode=PESSIMISTIC")
+class PessimisticTransferTortureTest extends TransferTortureTest {
+}
@@ -0,0 +1,33 @@
+package com.banking.service;
+
+import java.math.BigDecimal;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+// Transfers go through the batching writers; each caller waits for its
+// outcome. Same properties as TransferPipelineTest, so the context is shared.
+@SpringBootTest(properties = {
+		"banking.transfer.pipeline.enabled=true",
+		"banking.transfer.pipeline.partitions=2",
+		"banking.transfer.pipeline.batch-size=10"
+})
+class PipelineTransferTortureTest extends TransferTortureTest {
+
+	@Override
+	protected boolean transfer(String from, String to, BigDecimal amount) {
+		try {
+			String transferId = transactionService.submitTransfer(from, to, amount, null).transferId();
+			while (true) {
+				TransferPipeline.State state =
+						transactionService.getQueuedTransfer(transferId).orElseThrow().state();
+				if (state != TransferPipeline.State.QUEUED) {
+					return state == TransferPipeline.State.COMPLETED;
+				}
+				Thread.sleep(1);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+}
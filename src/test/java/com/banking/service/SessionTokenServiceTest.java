@@ -0,0 +1,48 @@
+package com.banking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.banking.dto.AuthenticatedUser;
+
+class SessionTokenServiceTest {
+
+	private SessionTokenService tokens;
+
+	@BeforeEach
+	void setUp() {
+		tokens = new SessionTokenService();
+		ReflectionTestUtils.setField(tokens, "secret", "test-secret");
+		ReflectionTestUtils.setField(tokens, "ttlMinutes", 60L);
+		tokens.init();
+	}
+
+	@Test
+	void issuedTokenVerifies() {
+		String token = tokens.encode(tokens.issue(42L, "CUSTOMER"));
+
+		AuthenticatedUser user = tokens.verify(token).orElseThrow();
+		assertThat(user.userId()).isEqualTo(42L);
+		assertThat(user.role()).isEqualTo("CUSTOMER");
+	}
+
+	@Test
+	void tamperedTokenIsRejected() {
+		String token = tokens.encode(tokens.issue(42L, "CUSTOMER"));
+
+		assertThat(tokens.verify(token.replace("CUSTOMER", "ADMIN"))).isEmpty();
+		assertThat(tokens.verify(token.replaceFirst("42", "43"))).isEmpty();
+		assertThat(tokens.verify("garbage")).isEmpty();
+	}
+
+	@Test
+	void expiredTokenIsRejected() {
+		String token = tokens.encode(new AuthenticatedUser(42L, "ADMIN",
+				System.currentTimeMillis() / 1000 - 1));
+
+		assertThat(tokens.verify(token)).isEmpty();
+	}
+}
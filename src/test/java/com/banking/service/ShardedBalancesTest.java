@@ -0,0 +1,101 @@
+package com.banking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.banking.model.Account;
+import com.banking.repository.AccountBalanceSlotRepository;
+import com.banking.repository.AccountRepository;
+
+@SpringBootTest
+class ShardedBalancesTest {
+
+	@Autowired
+	private AccountFixtures accountFixtures;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private AccountBalanceSlotRepository slotRepository;
+
+	@Autowired
+	private AccountNumberAllocator accountNumberAllocator;
+
+	@Test
+	void creditsLandOnSlotsAndTheTotalStaysExact() {
+		String payer = accountFixtures.open("1000.00");
+		String merchant = accountFixtures.open("5.00");
+		accountService.updateBalanceSlots(merchant, 4);
+
+		for (int i = 0; i < 20; i++) {
+			transactionService.transferMoney(payer, merchant, new BigDecimal("10.00"));
+		}
+
+		assertThat(accountRepository.findById(merchant).orElseThrow().getBalance()).isEqualByComparingTo("5.00");
+		assertThat(slotRepository.sumByAccountNumber(merchant)).isEqualByComparingTo("200.00");
+		assertThat(balanceOf(merchant)).isEqualByComparingTo("205.00");
+		assertThat(balanceOf(payer)).isEqualByComparingTo("800.00");
+
+		// spends the base balance, then draws the rest from the slots
+		transactionService.transferMoney(merchant, payer, new BigDecimal("150.00"));
+		assertThat(balanceOf(merchant)).isEqualByComparingTo("55.00");
+		assertThatThrownBy(() -> transactionService.transferMoney(merchant, payer, new BigDecimal("55.01")))
+				.hasMessage("Insufficient balance");
+
+		accountService.updateBalanceSlots(merchant, 0);
+		Account merged = accountRepository.findById(merchant).orElseThrow();
+		assertThat(merged.getBalanceSlots()).isZero();
+		assertThat(merged.getBalance()).isEqualByComparingTo("55.00");
+		assertThat(slotRepository.findAll()).noneMatch(slot -> slot.getAccountNumber().equals(merchant));
+	}
+
+	@Test
+	void adminBalanceChangesAndClosingCollapseTheSlots() {
+		String payer = accountFixtures.open("100.00");
+		String merchant = accountFixtures.open("0.00");
+		accountService.updateBalanceSlots(merchant, 3);
+		transactionService.transferMoney(payer, merchant, new BigDecimal("40.00"));
+
+		assertThatThrownBy(() -> accountService.closeAccount(merchant))
+				.hasMessageContaining("non zero balance");
+
+		accountService.updateBalance(merchant, BigDecimal.ZERO);
+		assertThat(slotRepository.sumByAccountNumber(merchant)).isEqualByComparingTo("0.00");
+		assertThat(accountService.closeAccount(merchant).getStatus()).isEqualTo("CLOSED");
+	}
+
+	// Missing, frozen and frozen sharded receivers all look the same to the sender
+	@Test
+	void unavailableReceiversAreNotTold() {
+		String payer = accountFixtures.open("100.00");
+		String frozen = accountFixtures.open("0.00");
+		String frozenSharded = accountFixtures.open("0.00");
+		accountService.updateBalanceSlots(frozenSharded, 2);
+		accountService.updateAccountStatus(frozen, "FROZEN");
+		accountService.updateAccountStatus(frozenSharded, "FROZEN");
+		String missing = accountNumberAllocator.next();
+
+		for (String receiver : new String[] {frozen, frozenSharded, missing}) {
+			assertThatThrownBy(() -> transactionService.transferMoney(payer, receiver, new BigDecimal("1.00")))
+					.hasMessage(TransferEngine.RECEIVER_UNAVAILABLE);
+		}
+		assertThat(balanceOf(payer)).isEqualByComparingTo("100.00");
+	}
+
+	private BigDecimal balanceOf(String accountNumber) {
+		return accountService.getAccountByNumber(accountNumber).orElseThrow().getBalance();
+	}
+}
@@ -0,0 +1,17 @@
+package com.banking.service;
+
+import java.util.List;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+// Half of the accounts take their credits on balance slots
+@SpringBootTest
+class ShardedTransferTortureTest extends TransferTortureTest {
+
+	@Override
+	protected void prepare(List<String> accounts) {
+		for (int i = 0; i < accounts.size(); i += 2) {
+			accountService.updateBalanceSlots(accounts.get(i), 4);
+		}
+	}
+}
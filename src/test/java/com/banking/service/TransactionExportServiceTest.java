@@ -0,0 +1,154 @@
+package com.banking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banking.model.Transaction;
+import com.banking.repository.TransactionRepository;
+
+import tools.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+class TransactionExportServiceTest {
+
+	@Autowired
+	private AccountFixtures accountFixtures;
+
+	@Autowired
+	private TransactionExportService transactionExportService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private ChangeFeedService changeFeedService;
+
+	@Autowired
+	private TransferEngine transferEngine;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void statementStreamsEveryRowOfTheAccountInOrder() throws Exception {
+		String from = accountFixtures.open("100.00");
+		String to = accountFixtures.open("0.00");
+		transactionService.transferMoney(from, to, new BigDecimal("1.00"));
+		transactionService.transferMoney(from, to, new BigDecimal("2.00"));
+		transactionService.transferMoney(to, from, new BigDecimal("0.50"));
+
+		String csv = export(from, null, null, StatementFormat.CSV);
+		String[] lines = csv.split("\n");
+		assertThat(lines).hasSize(4);
+		assertThat(lines[0]).startsWith("transactionId,");
+		assertThat(lines[1]).contains(",TRANSFER_OUT,1.00,");
+		assertThat(lines[2]).contains(",TRANSFER_OUT,2.00,");
+		assertThat(lines[3]).contains(",TRANSFER_IN,0.50,");
+
+		String ndjson = export(to, LocalDate.now(), LocalDate.now(), StatementFormat.NDJSON);
+		assertThat(ndjson.split("\n")).hasSize(3).allMatch(line -> line.startsWith("{") && line.contains(to));
+
+		assertThat(export(to, null, LocalDate.now().minusDays(1), StatementFormat.NDJSON)).isEmpty();
+	}
+
+	@Test
+	void bulkExportResumesAfterTheGivenIdInIdOrder() throws Exception {
+		String from = accountFixtures.open("100.00");
+		String to = accountFixtures.open("0.00");
+		for (int i = 0; i < 5; i++) {
+			transactionService.transferMoney(from, to, new BigDecimal("1.00"));
+		}
+		List<Long> all = transactionRepository.findAll().stream()
+				.map(Transaction::getTransactionId).sorted().toList();
+		long afterId = all.get(all.size() - 7);
+
+		TransactionExportService.BulkExport export = transactionExportService.bulkExport(afterId, 2, 3);
+		List<Long> ids = exportedIds(export);
+		assertThat(export.lastId()).isEqualTo(all.get(all.size() - 1));
+		assertThat(ids).isEqualTo(all.subList(all.size() - 6, all.size()));
+	}
+
+	// A transfer whose rows are still uncommitted during the full dump is
+	// picked up by the next incremental export from the dump's sequence
+	@Test
+	void changesExportPicksUpRowsCommittedAfterTheDump() throws Exception {
+		String from = accountFixtures.open("100.00");
+		String to = accountFixtures.open("0.00");
+		transactionService.transferMoney(from, to, new BigDecimal("1.00"));
+		changeFeedService.relayPending();
+
+		CountDownLatch inserted = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread slow = new Thread(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			transferEngine.transfer(from, to, new BigDecimal("2.00"), null);
+			inserted.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+		}));
+		slow.start();
+		assertThat(inserted.await(10, TimeUnit.SECONDS)).isTrue();
+
+		TransactionExportService.BulkExport dump = transactionExportService.bulkExport(0, 1000, 2);
+		List<Long> dumped = exportedIds(dump);
+
+		release.countDown();
+		slow.join(10_000);
+		transactionService.transferMoney(from, to, new BigDecimal("3.00"));
+		changeFeedService.relayPending();
+
+		TransactionExportService.BulkExport changes = transactionExportService.changesExport(dump.sequence(), 1, 2);
+		List<Long> changed = exportedIds(changes);
+		List<Long> mine = transactionRepository.findAll().stream()
+				.filter(t -> t.getAccountNumber().equals(from) || t.getAccountNumber().equals(to))
+				.map(Transaction::getTransactionId)
+				.toList();
+		assertThat(dumped).hasSizeGreaterThanOrEqualTo(2).doesNotContainAnyElementsOf(changed);
+		assertThat(changed).hasSize(4);
+		assertThat(mine).hasSize(6);
+		assertThat(Stream.concat(dumped.stream(), changed.stream()).toList()).containsAll(mine);
+
+		assertThat(exportedIds(transactionExportService.changesExport(changes.sequence(), 10, 1))).isEmpty();
+	}
+
+	private List<Long> exportedIds(TransactionExportService.BulkExport export) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		export.body().writeTo(out);
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines()
+					.map(line -> objectMapper.readTree(line).get("transactionId").asLong())
+					.toList();
+		}
+	}
+
+	private String export(String accountNumber, LocalDate start, LocalDate end, StatementFormat format)
+			throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		transactionExportService.statement(accountNumber, start, end, format).writeTo(out);
+		return out.toString(StandardCharsets.UTF_8);
+	}
+}
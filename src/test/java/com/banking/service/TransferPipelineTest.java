@@ -0,0 +1,74 @@
+package com.banking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.banking.repository.AccountRepository;
+
+@SpringBootTest(properties = {
+		"banking.transfer.pipeline.enabled=true",
+		"banking.transfer.pipeline.partitions=2",
+		"banking.transfer.pipeline.batch-size=10"
+})
+class TransferPipelineTest {
+
+	@Autowired
+	private AccountFixtures accountFixtures;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Test
+	void queuedTransfersCompleteAndFailuresStayIsolated() throws Exception {
+		List<String> senders = List.of(accountFixtures.open("100.00"), accountFixtures.open("100.00"), accountFixtures.open("100.00"));
+		String receiver = accountFixtures.open("0.00");
+
+		List<String> ids = new ArrayList<>();
+		for (int round = 0; round < 10; round++) {
+			for (String sender : senders) {
+				ids.add(transactionService.submitTransfer(sender, receiver, new BigDecimal("5.00"), 1L)
+						.transferId());
+			}
+		}
+		// more than the sender holds after the ten transfers above
+		String tooMuch = transactionService
+				.submitTransfer(senders.get(0), receiver, new BigDecimal("60.00"), 1L).transferId();
+
+		assertThat(awaitFinished(tooMuch).state()).isEqualTo(TransferPipeline.State.FAILED);
+		assertThat(awaitFinished(tooMuch).message()).isEqualTo("Insufficient balance");
+		for (String id : ids) {
+			assertThat(awaitFinished(id).state()).isEqualTo(TransferPipeline.State.COMPLETED);
+		}
+
+		for (String sender : senders) {
+			assertThat(balance(sender)).isEqualByComparingTo("50.00");
+		}
+		assertThat(balance(receiver)).isEqualByComparingTo("150.00");
+	}
+
+	private TransferPipeline.TransferStatus awaitFinished(String transferId) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (true) {
+			TransferPipeline.TransferStatus status =
+					transactionService.getQueuedTransfer(transferId).orElseThrow();
+			if (status.state() != TransferPipeline.State.QUEUED || System.currentTimeMillis() > deadline) {
+				return status;
+			}
+			Thread.sleep(20);
+		}
+	}
+
+	private BigDecimal balance(String accountNumber) {
+		return accountRepository.findByAccountNumber(accountNumber).orElseThrow().getBalance();
+	}
+}
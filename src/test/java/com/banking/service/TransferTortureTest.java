@@ -0,0 +1,167 @@
+package com.banking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Random concurrent transfers between a small set of accounts, then checks
+// that no money was created or lost: the total is unchanged, no balance is
+// negative, and every balance is its opening balance plus its TRANSFER_IN
+// rows minus its TRANSFER_OUT rows. One subclass per transfer path.
+//
+// The default build runs a short round. For a real run, which also prints
+// the rate to compare between commits:
+//   mvn test -Dgroups=torture -Dbenchmark=true [-Dtorture.transfers=N -Dtorture.threads=N]
+// and -DexcludedGroups=torture skips them.
+@Tag("torture")
+abstract class TransferTortureTest {
+
+	private static final int ACCOUNTS = 12;
+	private static final BigDecimal OPENING = new BigDecimal("1000.00");
+	private static final boolean BENCHMARK = Boolean.getBoolean("benchmark");
+
+	private final int transfers = Integer.getInteger("torture.transfers", BENCHMARK ? 5000 : 200);
+	private final int threads = Integer.getInteger("torture.threads", 8);
+
+	@Autowired
+	private AccountFixtures accountFixtures;
+
+	@Autowired
+	protected TransactionService transactionService;
+
+	@Autowired
+	protected AccountService accountService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// e.g. shard some of the accounts
+	protected void prepare(List<String> accounts) {
+	}
+
+	// true when the transfer committed, false when it was refused
+	protected boolean transfer(String from, String to, BigDecimal amount) {
+		try {
+			transactionService.transferMoney(from, to, amount);
+			return true;
+		} catch (RuntimeException e) {
+			return false;
+		}
+	}
+
+	// runs after the last transfer, before the checks
+	protected void settle() {
+	}
+
+	@Test
+	void moneyIsConservedUnderConcurrentTransfers() throws Exception {
+		List<String> accounts = new ArrayList<>();
+		for (int i = 0; i < ACCOUNTS; i++) {
+			accounts.add(accountFixtures.open(OPENING.toPlainString()));
+		}
+		prepare(accounts);
+
+		AtomicInteger committed = new AtomicInteger();
+		AtomicInteger remaining = new AtomicInteger(transfers);
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		long started;
+		try {
+			List<Future<?>> workers = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				workers.add(pool.submit(() -> {
+					start.await();
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					while (remaining.getAndDecrement() > 0) {
+						int from = random.nextInt(ACCOUNTS);
+						int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+						// up to 200.00, so some transfers find the sender short
+						BigDecimal amount = BigDecimal.valueOf(random.nextLong(1, 20_001), 2);
+						if (transfer(accounts.get(from), accounts.get(to), amount)) {
+							committed.incrementAndGet();
+						}
+					}
+					return null;
+				}));
+			}
+			started = System.nanoTime();
+			start.countDown();
+			for (Future<?> worker : workers) {
+				worker.get(5, TimeUnit.MINUTES);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+		if (BENCHMARK) {
+			System.out.printf("%s: %d transfers (%d committed) on %d threads in %d ms, %.0f transfers/s%n",
+					getClass().getSimpleName(), transfers, committed.get(), threads, elapsedMs,
+					transfers * 1000.0 / Math.max(1, elapsedMs));
+		}
+
+		settle();
+
+		Map<String, BigDecimal> explained = explainedBalances(accounts);
+		BigDecimal total = BigDecimal.ZERO;
+		for (String accountNumber : accounts) {
+			BigDecimal balance = accountService.getAccountByNumber(accountNumber).orElseThrow().getBalance();
+			assertThat(balance).as("balance of %s", accountNumber).isGreaterThanOrEqualTo(BigDecimal.ZERO);
+			assertThat(balance).as("history of %s", accountNumber)
+					.isEqualByComparingTo(explained.get(accountNumber));
+			total = total.add(balance);
+		}
+		assertThat(total).isEqualByComparingTo(OPENING.multiply(BigDecimal.valueOf(ACCOUNTS)));
+
+		assertThat(committed.get()).isPositive();
+		assertThat(countRows(accounts, "TRANSFER_OUT")).isEqualTo(committed.get());
+		assertThat(countRows(accounts, "TRANSFER_IN")).isEqualTo(committed.get());
+	}
+
+	// opening balance + money in - money out, from the transaction rows
+	private Map<String, BigDecimal> explainedBalances(List<String> accounts) {
+		Map<String, BigDecimal> balances = new HashMap<>();
+		accounts.forEach(a -> balances.put(a, OPENING));
+		jdbcTemplate.query(
+				"SELECT account_number, transaction_type, SUM(amount) AS total FROM transactions "
+						+ "WHERE account_number IN (" + placeholders(accounts) + ") "
+						+ "GROUP BY account_number, transaction_type",
+				rs -> {
+					BigDecimal amount = rs.getBigDecimal("total");
+					if ("TRANSFER_OUT".equals(rs.getString("transaction_type"))) {
+						amount = amount.negate();
+					}
+					balances.merge(rs.getString("account_number"), amount, BigDecimal::add);
+				},
+				accounts.toArray());
+		return balances;
+	}
+
+	private int countRows(List<String> accounts, String type) {
+		List<Object> args = new ArrayList<>(accounts);
+		args.add(type);
+		return jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM transactions WHERE account_number IN (" + placeholders(accounts)
+						+ ") AND transaction_type = ?",
+				Integer.class, args.toArray());
+	}
+
+	private static String placeholders(List<String> values) {
+		return String.join(",", values.stream().map(v -> "?").toList());
+	}
+}
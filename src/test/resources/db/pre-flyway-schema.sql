@@ -0,0 +1,46 @@
+-- Snapshot of the schema spring.jpa.hibernate.ddl-auto=update left in
+-- production before Flyway took over. FlywayBaselineTest baselines it.
+
+CREATE TABLE users (
+    user_id        BIGINT       NOT NULL AUTO_INCREMENT,
+    first_name     VARCHAR(255) NOT NULL,
+    last_name      VARCHAR(255) NOT NULL,
+    username       VARCHAR(255) NOT NULL,
+    password_hash  VARCHAR(255) NOT NULL,
+    email          VARCHAR(255) NOT NULL,
+    phone          VARCHAR(255) NOT NULL,
+    address_line1  VARCHAR(255),
+    address_line2  VARCHAR(255),
+    city           VARCHAR(255),
+    state          VARCHAR(255),
+    postal_code    VARCHAR(255),
+    role           VARCHAR(255) NOT NULL,
+    status         VARCHAR(255) NOT NULL,
+    created_at     DATETIME(6)  NOT NULL,
+    updated_at     DATETIME(6)  NOT NULL,
+    PRIMARY KEY (user_id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE accounts (
+    account_number VARCHAR(255)   NOT NULL,
+    user_id        BIGINT         NOT NULL,
+    account_type   VARCHAR(255)   NOT NULL,
+    balance        DECIMAL(15, 2) NOT NULL,
+    currency       VARCHAR(255)   NOT NULL,
+    opened_at      DATETIME(6)    NOT NULL,
+    status         VARCHAR(255)   NOT NULL,
+    PRIMARY KEY (account_number)
+);
+
+CREATE TABLE transactions (
+    transaction_id   BIGINT         NOT NULL AUTO_INCREMENT,
+    account_number   VARCHAR(255)   NOT NULL,
+    transaction_type VARCHAR(255)   NOT NULL,
+    amount           DECIMAL(15, 2) NOT NULL,
+    transaction_time DATETIME(6)    NOT NULL,
+    description      VARCHAR(255),
+    status           VARCHAR(255)   NOT NULL,
+    PRIMARY KEY (transaction_id)
+);